@@ -0,0 +1,178 @@
+import java.io.CharArrayReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/* A JavaCharStream over a whole file that was decoded at once into one char array => readChar is an index increment and no buffer is ever expanded or copied */
+class ArrayCharStream extends JavaCharStream{
+
+    char[] text;
+    int length;
+    int[] lineStarts;                           /* The index of the first char of every line => the line and the column of a char are only found when a token is filled */
+    int lines;
+    boolean tabs;                               /* The file has a tab => else the column of a char is its distance from the start of its line */
+    int pos = -1;                               /* The index of the last char that was read */
+    int begin = 0;                              /* The index of the first char of the current token */
+
+    int cursorLine = 0;                         /* The line of the last position that was asked, and the column of the char before "cursor" */
+    int cursor = 0;
+    int cursorColumn = 0;
+
+    ArrayCharStream(char[] text, int length, int[] lineStarts, int lines, boolean tabs){
+        super(new CharArrayReader(new char[0]), 1, 1, 1);
+        this.text = text;
+        this.length = length;
+        this.lineStarts = lineStarts;
+        this.lines = lines;
+        this.tabs = tabs;
+    }
+
+    /* Read the file "path" at once and decode it with the default charset, like the InputStreamReader of JavaCharStream */
+    static JavaCharStream read(Path path) throws IOException {
+        if (Files.isDirectory(path))
+            throw new FileNotFoundException(path + " (Is a directory)");            /* The same error as FileInputStream */
+        return decode(Files.readAllBytes(path));
+    }
+
+    /* Read "bytes" as chars => a file of plain ASCII isn't decoded at all */
+    static JavaCharStream decode(byte[] bytes){
+        JavaCharStream ascii = AsciiCharStream.scan(bytes);
+        return (ascii != null) ? ascii : chars(bytes);
+    }
+
+    /* Decode "bytes" into one char array => a unicode escape ("\\" and then "u") is left to JavaCharStream */
+    static JavaCharStream chars(byte[] bytes){
+
+        String decoded = new String(bytes, Charset.defaultCharset());      /* Malformed input is replaced like in the InputStreamReader of JavaCharStream */
+        char[] text = decoded.toCharArray();
+        return of(text, text.length);
+    }
+
+    /* A stream over the first "length" chars of "text", which must not change while its tokens are used => a unicode escape is left to JavaCharStream */
+    static JavaCharStream of(char[] text, int length){
+
+        int[] lineStarts = new int[64];
+        int lines = 1;
+        boolean tabs = false;
+
+        /* The rules of JavaCharStream.UpdateLineColumn => "\r\n" is one line break */
+        for (int i = 0; i < length; i++){
+            char c = text[i];
+            if (c <= '\r'){
+                if (c == '\n' || (c == '\r' && (i + 1 == length || text[i + 1] != '\n'))){
+                    if (lines == lineStarts.length)
+                        lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+                    lineStarts[lines++] = i + 1;
+                }
+                else if (c == '\t')
+                    tabs = true;
+            }
+            else if (c == '\\' && i + 1 < length && text[i + 1] == 'u')
+                return new JavaCharStream(new CharArrayReader(text, 0, length));
+        }
+
+        return new ArrayCharStream(text, length, lineStarts, lines, tabs);
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        if (pos + 1 >= length)
+            throw new IOException();                    /* The end of the file => pos stays on the last char */
+        return text[++pos];
+    }
+
+    @Override
+    public char BeginToken() throws IOException {
+        begin = pos + 1;
+        if (begin >= length)
+            begin = pos;                                /* EOF => the token is at the last char of the file */
+        return readChar();
+    }
+
+    @Override
+    public void backup(int amount){
+        pos -= amount;
+    }
+
+    @Override
+    public String GetImage(){
+        return image(begin, pos + 1);
+    }
+
+    /* The chars from "start" up to "end" */
+    String image(int start, int end){
+        return new String(text, start, end - start);
+    }
+
+    @Override
+    public char[] GetSuffix(int len){
+        return Arrays.copyOfRange(text, pos - len + 1, pos + 1);
+    }
+
+    char charAt(int index){
+        return text[index];
+    }
+
+    /* Move the cursor to the char "index" => the tokens ask for their positions in order, so the cursor almost always moves forward a few chars */
+    void seek(int index){
+
+        if (index == cursor - 1)
+            return;
+
+        if (index < cursor){
+            int found = Arrays.binarySearch(lineStarts, 0, lines, index);
+            cursorLine = (found >= 0) ? found : -found - 2;
+            cursor = lineStarts[cursorLine];
+            cursorColumn = 0;
+        }
+
+        while (cursorLine + 1 < lines && lineStarts[cursorLine + 1] <= index){
+            cursor = lineStarts[++cursorLine];
+            cursorColumn = 0;
+        }
+
+        if (!tabs){
+            cursorColumn += index + 1 - cursor;
+            cursor = index + 1;
+            return;
+        }
+
+        /* A tab moves to the next multiple of tabSize, like JavaCharStream.UpdateLineColumn */
+        while (cursor <= index){
+            if (charAt(cursor++) == '\t')
+                cursorColumn += tabSize - (cursorColumn % tabSize);
+            else
+                cursorColumn++;
+        }
+    }
+
+    int line(int index){
+        if (index < 0)
+            return 1;
+        seek(index);
+        return cursorLine + 1;
+    }
+
+    int column(int index){
+        if (index < 0)
+            return 0;
+        seek(index);
+        return cursorColumn;
+    }
+
+    @Override public int getBeginLine(){ return line(begin); }
+    @Override public int getBeginColumn(){ return column(begin); }
+    @Override public int getEndLine(){ return line(pos); }
+    @Override public int getEndColumn(){ return column(pos); }
+    @Override @Deprecated public int getLine(){ return line(pos); }
+    @Override @Deprecated public int getColumn(){ return column(pos); }
+
+    @Override
+    public void Done(){
+        text = null;
+        lineStarts = null;
+    }
+}
@@ -0,0 +1,95 @@
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/* An ArrayCharStream over a file of plain ASCII without unicode escapes => the bytes are the chars, so the file is never decoded into a char array */
+class AsciiCharStream extends ArrayCharStream{
+
+    static final boolean ASCII_CHARSET = asciiCharset();   /* The default charset reads every ASCII byte as the same char => else every file is decoded */
+
+    byte[] bytes;
+
+    AsciiCharStream(byte[] bytes, int[] lineStarts, int lines, boolean tabs){
+        super(null, bytes.length, lineStarts, lines, tabs);
+        this.bytes = bytes;
+    }
+
+    static boolean asciiCharset(){
+
+        byte[] ascii = new byte[128];
+        for (int i = 0; i < ascii.length; i++)
+            ascii[i] = (byte) i;
+
+        String decoded = new String(ascii, Charset.defaultCharset());
+        if (decoded.length() != ascii.length)
+            return false;
+        for (int i = 0; i < ascii.length; i++)
+            if (decoded.charAt(i) != i)
+                return false;
+        return true;
+    }
+
+    /* The stream over "bytes" => null if a byte isn't ASCII or a unicode escape ("\\" and then "u") must be decoded by JavaCharStream */
+    static AsciiCharStream scan(byte[] bytes){
+
+        if (!ASCII_CHARSET)
+            return null;
+
+        int length = bytes.length;
+        int[] lineStarts = new int[64];
+        int lines = 1;
+        boolean tabs = false;
+
+        /* The same line breaks as ArrayCharStream.chars => a byte over 127 is negative, so one comparison finds the line breaks, the tabs and the other charsets */
+        for (int i = 0; i < length; i++){
+            byte c = bytes[i];
+            if (c <= '\r'){
+                if (c < 0)
+                    return null;
+                if (c == '\n' || (c == '\r' && (i + 1 == length || bytes[i + 1] != '\n'))){
+                    if (lines == lineStarts.length)
+                        lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+                    lineStarts[lines++] = i + 1;
+                }
+                else if (c == '\t')
+                    tabs = true;
+            }
+            else if (c == '\\' && i + 1 < length && bytes[i + 1] == 'u')
+                return null;
+        }
+
+        return new AsciiCharStream(bytes, lineStarts, lines, tabs);
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        if (pos + 1 >= length)
+            throw new IOException();                    /* The end of the file => pos stays on the last char */
+        return (char) bytes[++pos];
+    }
+
+    @Override
+    String image(int start, int end){
+        return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public char[] GetSuffix(int len){
+        char[] suffix = new char[len];
+        for (int i = 0; i < len; i++)
+            suffix[i] = (char) bytes[pos - len + 1 + i];
+        return suffix;
+    }
+
+    @Override
+    char charAt(int index){
+        return (char) bytes[index];
+    }
+
+    @Override
+    public void Done(){
+        super.Done();
+        bytes = null;
+    }
+}
@@ -0,0 +1,40 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/* The result of MiniJavaCompiler.check => it never changes, so it can be shared between threads */
+public final class CheckResult {
+
+    private final boolean parsed;                       /* false if there was a syntax error */
+    private final List<Diagnostic> diagnostics;         /* The errors in the order of their position => empty if the program is correct */
+    private final List<ClassLayout> layout;             /* The offsets of every class => empty if there are errors */
+
+    public CheckResult(boolean parsed, List<Diagnostic> diagnostics, List<ClassLayout> layout){
+        this.parsed = parsed;
+        this.diagnostics = Collections.unmodifiableList(new ArrayList<Diagnostic>(diagnostics));
+        this.layout = Collections.unmodifiableList(new ArrayList<ClassLayout>(layout));
+    }
+
+    public boolean parsed(){
+        return parsed;
+    }
+
+    public List<Diagnostic> diagnostics(){
+        return diagnostics;
+    }
+
+    public List<ClassLayout> layout(){
+        return layout;
+    }
+
+    public boolean hasErrors(){
+        return !diagnostics.isEmpty();
+    }
+
+    /* Print the offsets like "java Main" */
+    public void printOffsets(PrintStream out){
+        for (ClassLayout classLayout : layout)
+            classLayout.print(out);
+    }
+}
@@ -0,0 +1,42 @@
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/* The offsets of the variables and the methods of one class */
+public final class ClassLayout {
+
+    private final String className;
+    private final Map<String,Integer> fields;           /* The class variables as keys and their offsets as values => in the order they are declared */
+    private final Map<String,Integer> methods;          /* The methods as keys and their offsets as values => without the methods that override a parent method */
+
+    public ClassLayout(String className, Map<String,Integer> fields, Map<String,Integer> methods){
+        this.className = className;
+        this.fields = Collections.unmodifiableMap(new LinkedHashMap<String,Integer>(fields));
+        this.methods = Collections.unmodifiableMap(new LinkedHashMap<String,Integer>(methods));
+    }
+
+    public String className(){
+        return className;
+    }
+
+    public Map<String,Integer> fields(){
+        return fields;
+    }
+
+    public Map<String,Integer> methods(){
+        return methods;
+    }
+
+    public void print(PrintStream out){
+
+        out.println(" ------------- Class " + className + " ------------- ");
+        out.println(" --- Variables --- ");
+        for (Map.Entry<String,Integer> field : fields.entrySet())
+            out.println(className + "." + field.getKey() + " : " + field.getValue());
+
+        out.println(" --- Methods --- ");
+        for (Map.Entry<String,Integer> method : methods.entrySet())
+            out.println(className + "." + method.getKey() + " : " + method.getValue());
+    }
+}
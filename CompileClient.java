@@ -0,0 +1,76 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/* The client of the compile server ("java Main --server") => takes the same arguments as "java Main", prints what the server sends back and exits with the same code */
+public class CompileClient {
+
+    /* Usage: java CompileClient [--port N | --socket <path>] <arguments of Main> */
+    public static void main(String[] args) throws Exception {
+
+        Path socket = CompileServer.defaultSocket();
+        SocketAddress address = UnixDomainSocketAddress.of(socket);
+        int first = 0;                                  /* The first argument for Main */
+
+        if (args.length > 1 && args[0].equals("--port")){
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[1]));
+            first = 2;
+        }
+        else if (args.length > 1 && args[0].equals("--socket")){
+            address = UnixDomainSocketAddress.of(args[1]);
+            first = 2;
+        }
+        String[] mainArgs = Arrays.copyOfRange(args, first, args.length);
+
+        SocketChannel channel;
+        try{
+            /* The default socket must be in a directory of this user => else another user may have made it, and would get the requests */
+            if (first == 0 && !CompileServer.ownerOnly(socket.getParent()))
+                throw new IOException(socket.getParent() + " isn't owner only");
+            channel = SocketChannel.open(address);
+        }
+        catch(IOException ex){
+            /* There is no server => compile in this JVM */
+            Main.main(mainArgs);
+            return;
+        }
+
+        int exitCode;
+        try (SocketChannel server = channel){
+
+            DataOutputStream request = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(server)));
+            request.writeUTF(Paths.get("").toAbsolutePath().toString());
+            request.writeInt(mainArgs.length);
+            for (String arg : mainArgs)
+                request.writeUTF(arg);
+            request.flush();
+
+            DataInputStream response = new DataInputStream(new BufferedInputStream(Channels.newInputStream(server)));
+            int tag;
+            while ((tag = response.readByte()) != 0){
+                byte[] bytes = new byte[response.readInt()];
+                response.readFully(bytes);
+
+                PrintStream stream = (tag == 1) ? System.out : System.err;
+                stream.write(bytes);
+                stream.flush();
+            }
+            exitCode = response.readInt();
+        }
+
+        if (exitCode != 0)
+            System.exit(exitCode);
+    }
+}
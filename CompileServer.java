@@ -0,0 +1,251 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps one JVM running and compiles the command lines that CompileClient sends => the lexer, the parser and MyVisitor stay JIT compiled between requests
+ *
+ * Request:  UTF directory of the client, int number of arguments, UTF arguments (the same arguments as "java Main")
+ * Response: frames of byte 1 (standard output) or byte 2 (standard error), int length, bytes => and at the end byte 0, int exit code
+ *
+ * A client only gets the options of CLIENT_OPTIONS => the server never writes a file, or deletes the files of a --cache-dir, for a client.
+ * The server reads any file that a client names, with the rights of its owner => by default it listens on a Unix-domain socket in a directory
+ * that only its owner can open (defaultSocket), and a TCP port on the loopback, which every local user can reach, is only used with --port.
+ */
+class CompileServer{
+
+    static final int WINDOW = 1 << 16;                   /* The percentiles are found from the latencies of the last WINDOW requests */
+    static final Set<String> CLIENT_OPTIONS = new HashSet<String>(Arrays.asList("--jobs", "--lean", "--parallel-parse"));
+    static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+    static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    long[] latencies = new long[WINDOW];
+    long requests = 0;
+
+    /* Usage: java Main --server [--port N | --socket <path>] */
+    public static void main(String[] args) throws Exception {
+
+        Path socket = null;
+        int port = -1;
+
+        for (int i = 0; i < args.length; i++){
+            if (args[i].equals("--port") && i + 1 < args.length)
+                port = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--socket") && i + 1 < args.length)
+                socket = Paths.get(args[++i]);
+            else{
+                System.err.println("Usage: java Main --server [--port N | --socket <path>]");
+                System.exit(1);
+            }
+        }
+
+        SocketAddress address;
+        ProtocolFamily family;
+
+        if (port >= 0){
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+            family = StandardProtocolFamily.INET;
+            System.err.println("Compile server: every local user can send files to read on port " + port + " => use the default socket on a shared machine");
+        }
+        else{
+            if (socket == null){
+                socket = defaultSocket();
+                ownerOnlyDirectory(socket.getParent());
+            }
+            Files.deleteIfExists(socket);               /* Left by a server that was killed */
+            address = UnixDomainSocketAddress.of(socket);
+            family = StandardProtocolFamily.UNIX;
+        }
+
+        final CompileServer server = new CompileServer();
+        final SocketAddress bound = address;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.err.println(server.latencyReport());
+            if (bound instanceof UnixDomainSocketAddress)
+                ((UnixDomainSocketAddress) bound).getPath().toFile().delete();
+        }));
+
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try (ServerSocketChannel listener = ServerSocketChannel.open(family)){
+            listener.bind(address);
+            System.err.println("Compile server listening on " + address);
+
+            while (true){
+                final SocketChannel client = listener.accept();
+                pool.submit(() -> server.handle(client));
+            }
+        }
+    }
+
+    /* The socket of the server when neither --port nor --socket is given => one for every user, in a directory that only the user can open */
+    static Path defaultSocket(){
+        return Paths.get(System.getProperty("java.io.tmpdir"), "minijava-" + System.getProperty("user.name"), "server.sock");
+    }
+
+    /* Make the directory "dir" that only its owner can open => fail if it's there already and another user owns it or can open it */
+    static void ownerOnlyDirectory(Path dir) throws IOException {
+
+        try{
+            if (POSIX)
+                Files.createDirectory(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            else
+                Files.createDirectory(dir);             /* The temporary directory of every user is their own, like on Windows */
+        }
+        catch(FileAlreadyExistsException ex){}          /* Made by a server before => it must still be owner only */
+
+        if (!ownerOnly(dir))
+            throw new IOException(dir + " must be a directory of " + System.getProperty("user.name") + " with the permissions rwx------");
+    }
+
+    /* "dir" is a directory of this user that no one else can open => else the socket in it may belong to another user */
+    static boolean ownerOnly(Path dir){
+
+        if (!POSIX)
+            return Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS);
+        try{
+            UserPrincipal user = dir.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(System.getProperty("user.name"));
+            return Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS)
+                && Files.getOwner(dir, LinkOption.NOFOLLOW_LINKS).equals(user)
+                && Files.getPosixFilePermissions(dir, LinkOption.NOFOLLOW_LINKS).equals(OWNER_ONLY);
+        }
+        catch(IOException ex){
+            return false;
+        }
+    }
+
+    /* Read one command line from "client", compile it and send back the output */
+    void handle(SocketChannel client){
+
+        try (SocketChannel channel = client){
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream response = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+            Path dir = Paths.get(in.readUTF());
+            String[] args = new String[in.readInt()];
+            for (int i = 0; i < args.length; i++)
+                args[i] = in.readUTF();
+
+            long start = System.nanoTime();
+            PrintStream out = new PrintStream(new BufferedOutputStream(new FrameOutputStream(response, 1)), false);
+            PrintStream err = new PrintStream(new BufferedOutputStream(new FrameOutputStream(response, 2)), true);
+            int exitCode;
+
+            String refused;
+
+            if (args.length == 1 && args[0].equals("--server-stats")){
+                out.println(latencyReport());
+                exitCode = 0;
+            }
+            else if ((refused = refusedOption(args)) != null){
+                err.println("error: the compile server doesn't take the option " + refused);
+                exitCode = 1;
+            }
+            else{
+                try{
+                    exitCode = new Main(out, err, dir).run(args);
+                }
+                catch(Throwable ex){            /* An Error too (e.g. StackOverflowError on a deeply nested file) => the client still gets an exit code */
+                    err.println("error: " + ex);
+                    exitCode = 1;
+                }
+                record(System.nanoTime() - start);
+            }
+
+            out.flush();
+            err.flush();
+            synchronized (response){
+                response.writeByte(0);
+                response.writeInt(exitCode);
+                response.flush();
+            }
+        }
+        catch(Throwable ex){            /* The client went away or sent a broken request => only this request is lost */
+            System.err.println("Compile server: " + ex);
+        }
+    }
+
+    /* The first option of "args" that a client can't send => null if every option is in CLIENT_OPTIONS */
+    static String refusedOption(String[] args){
+
+        for (int i = 0; i < args.length; i++){
+            if (args[i].equals("--jobs"))
+                i++;                                    /* The number of jobs */
+            else if (args[i].startsWith("--") && !CLIENT_OPTIONS.contains(args[i]))
+                return args[i];
+        }
+        return null;
+    }
+
+    synchronized void record(long latency){
+
+        latencies[(int) (requests % WINDOW)] = latency;
+        requests++;
+
+        if (requests % 1000 == 0)
+            System.err.println(latencyReport());
+    }
+
+    /* The number of requests and the p50 and p99 latency of the last requests */
+    synchronized String latencyReport(){
+
+        int count = (int) Math.min(requests, WINDOW);
+        if (count == 0)
+            return "requests: 0";
+
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        return String.format("requests: %d   p50: %.3f ms   p99: %.3f ms", requests, sorted[(count - 1) / 2] / 1e6, sorted[(int) Math.ceil(count * 0.99) - 1] / 1e6);
+    }
+}
+
+/* Sends every write to the client as one frame with the tag of the stream (1 = standard output, 2 = standard error) */
+class FrameOutputStream extends OutputStream{
+
+    DataOutputStream response;
+    int tag;
+
+    public FrameOutputStream(DataOutputStream response, int tag){
+        this.response = response;
+        this.tag = tag;
+    }
+
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    public void write(byte[] b, int off, int len) throws IOException {
+        synchronized (response){
+            response.writeByte(tag);
+            response.writeInt(len);
+            response.write(b, off, len);
+        }
+    }
+}
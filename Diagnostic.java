@@ -0,0 +1,29 @@
+/* An error of a file with the position of the first token where it was found */
+public final class Diagnostic {
+
+    private final int line;                             /* 0 if the error doesn't have a position */
+    private final int column;
+    private final String message;
+
+    public Diagnostic(int line, int column, String message){
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+
+    public int line(){
+        return line;
+    }
+
+    public int column(){
+        return column;
+    }
+
+    public String message(){
+        return message;
+    }
+
+    public String toString(){
+        return (line > 0) ? line + ":" + column + ": " + message : " " + message;
+    }
+}
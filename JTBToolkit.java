@@ -0,0 +1,31 @@
+//
+// Generated by JTB 1.3.2 DIT@UoA patched, in MiniJavaParser.java => in its
+// own file, since ParallelParser in Main.java uses it too
+//
+
+import syntaxtree.*;
+
+class JTBToolkit {
+   static NodeToken makeNodeToken(Token t) {
+      if ( t instanceof NameToken )
+         return new NameNodeToken((NameToken) t);
+      if ( t instanceof SourceToken && t.image == null )
+         return new SourceNodeToken((SourceToken) t);
+      return new NodeToken(t.image.intern(), t.kind, t.beginLine, t.beginColumn, t.endLine, t.endColumn);
+   }
+
+   // The shared NodeToken of every token kind with a fixed image
+   static final NodeToken[] FIXED_TOKENS = new NodeToken[MiniJavaParserTokenManager.jjstrLiteralImages.length];
+
+   static {
+      for ( int kind = 0; kind < FIXED_TOKENS.length; kind++ )
+         if ( MiniJavaParserTokenManager.jjstrLiteralImages[kind] != null )
+            FIXED_TOKENS[kind] = new NodeToken(MiniJavaParserTokenManager.jjstrLiteralImages[kind].intern(), kind, -1, -1, -1, -1);
+   }
+
+   static NodeToken makeFixedToken(Token t, boolean lean) {
+      if ( lean && FIXED_TOKENS[t.kind] != null )
+         return FIXED_TOKENS[t.kind];
+      return makeNodeToken(t);
+   }
+}
@@ -3,235 +3,2352 @@ import visitor.*;
 
 import java.util.*;
 
-import java.io.FileInputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
 
 public class Main {
+
+    PrintStream out;                                        /* Where the offsets are printed => System.out, or the client of the compile server */
+    PrintStream err;                                        /* Where the errors are printed */
+    Path dir;                                               /* The directory of the relative file names => the client's directory for the compile server */
+    String statsFile = null;                                /* The JSON file for the --stats summary => null if --stats is off */
+    boolean lean = false;                                   /* --lean => the parser shares the fixed tokens that don't begin a node */
+    boolean parallel = false;                               /* --parallel-parse => the classes of a file are parsed on the common ForkJoinPool */
+    List<CompileStats> stats = new ArrayList<CompileStats>();
+    int errors = 0;                                         /* Number of errors in all the files */
+    ResultCache cache = null;                               /* The results of files that were checked before => null if --cache-dir is off */
+
+    public Main(PrintStream out, PrintStream err, Path dir){
+        this.out = out;
+        this.err = err;
+        this.dir = dir;
+    }
+
     public static void main(String[] args) throws Exception {
-        if(args.length < 1){
-            System.err.println("Usage: java Main <inputFile>");
-            System.exit(1);
+
+        if (args.length > 0 && args[0].equals("--server")){
+            CompileServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        int exitCode = new Main(System.out, System.err, Paths.get("")).run(args);
+        if (exitCode != 0)
+            System.exit(exitCode);
+    }
+
+    /* Compile the files of the command line "args" => Return the exit code */
+    public int run(String[] args) throws Exception {
+
+        int jobs = 1;                                       /* Number of files that are compiled at the same time */
+        String cacheDir = null;                             /* --cache-dir => the cache is made after every option is read */
+        long cacheSize = 0;                                 /* --cache-size in MB => 0 for ResultCache.DEFAULT_SIZE */
+        List<String> files = new ArrayList<String>();
+
+        for (int i = 0; i < args.length; i++){
+            if (args[i].equals("--jobs")){
+                if (i + 1 == args.length || (jobs = parseNumber(args[++i])) < 1)
+                    return usage();
+            }
+            else if (args[i].equals("--stats")){
+                if (statsFile == null)
+                    statsFile = "minijava-stats.json";
+            }
+            else if (args[i].equals("--lean"))
+                lean = true;
+            else if (args[i].equals("--parallel-parse"))
+                parallel = true;
+            else if (args[i].equals("--stats-file")){
+                if (i + 1 == args.length)
+                    return usage();
+                statsFile = args[++i];
+            }
+            else if (args[i].equals("--cache-dir")){
+                if (i + 1 == args.length)
+                    return usage();
+                cacheDir = args[++i];
+            }
+            else if (args[i].equals("--cache-size")){
+                if (i + 1 == args.length || (cacheSize = parseNumber(args[++i])) < 1)
+                    return usage();
+            }
+            else
+                files.add(args[i]);
         }
 
-        FileInputStream fis = null;
-        try{
-            for (int file = 0; file < args.length; file++){
+        if (files.isEmpty() || (cacheSize > 0 && cacheDir == null))
+            return usage();
+        if (cacheDir != null)
+            cache = new ResultCache(dir.resolve(cacheDir), (cacheSize > 0) ? cacheSize * 1024 * 1024 : ResultCache.DEFAULT_SIZE);
+
+        final boolean withStats = (statsFile != null);
+        final boolean lean = this.lean;
+        final boolean parallel = this.parallel;
+        final ResultCache cache = this.cache;
+
+        if (jobs == 1){
+            for (String file : files)
+                report(compile(file, dir, withStats, lean, parallel, cache));
+            return finish();
+        }
+
+        /* Every file gets its own Symbol Tables, so the files can be checked in parallel => print the results in argument order */
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(jobs, files.size()));
+        try{
+            List<Future<CompileResult>> results = new ArrayList<Future<CompileResult>>();
+            for (final String file : files)
+                results.add(pool.submit(() -> compile(file, dir, withStats, lean, parallel, cache)));
+
+            for (Future<CompileResult> result : results){
+                try{
+                    report(result.get());
+                }
+                catch(ExecutionException ex){
+                    if (ex.getCause() instanceof Exception)
+                        throw (Exception) ex.getCause();
+                    throw ex;
+                }
+            }
+        }
+        finally{
+            pool.shutdownNow();
+        }
+        return finish();
+    }
+
+    /* Print the number of errors of all the files => Return the exit code, 1 if there was an error */
+    int finish() throws IOException {
+
+        writeStats();
+
+        if (cache != null)
+            cache.evict();
+
+        if (errors > 0){
+            err.println(errors + (errors == 1 ? " error" : " errors"));
+            return 1;
+        }
+        return 0;
+    }
+
+    int usage(){
+        err.println("Usage: java Main [--jobs N] [--lean] [--parallel-parse] [--stats] [--stats-file <jsonFile>] [--cache-dir <dir> [--cache-size MB]] <inputFile> ...");
+        err.println("       java Main --server [--port N | --socket <path>]");
+        return 1;
+    }
+
+    static int parseNumber(String str){
+        try{
+            return Integer.parseInt(str);
+        } catch(NumberFormatException e){
+            return -1;
+        }
+    }
+
+    /* Parse and typecheck the file called "fileName" of the directory "dir" => Everything the file prints is kept in the result */
+    static CompileResult compile(String fileName, Path dir, boolean withStats, boolean lean, boolean parallel, ResultCache cache) throws Exception {
+
+        CompileResult result = new CompileResult(fileName);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, true);
+        CompileStats phases = withStats ? new CompileStats(fileName) : null;
+        Diagnostics diagnostics = new Diagnostics();            /* Every error of this file => the passes keep checking after an error */
+        result.stats = phases;
+        result.diagnostics = diagnostics;
+
+        Path path = dir.resolve(fileName);
+
+        try{
+            byte[] content = null;                              /* The bytes of the file => only read at once for --stats and the cache */
+            CheckResult checked = null;
+            String key = null;
+
+            if (phases != null || cache != null){
+                if (phases != null) phases.begin("read");
+                content = Files.readAllBytes(path);
+                if (phases != null) phases.end();
+            }
+
+            /* A file with the same content was checked before => no parsing and no MyVisitor passes */
+            if (cache != null){
+                if (phases != null) phases.begin("cache");
+                key = cache.key(content);
+                checked = cache.get(key);
+                if (phases != null) phases.end();
+            }
+
+            if (checked == null){
+                MiniJavaParser parser = null;
+
+                /* The whole file in one array => read at once here, or decoded from the bytes that were read for --stats and the cache */
+                if (phases != null) phases.begin("lex");
+                JavaCharStream stream = (content != null) ? ArrayCharStream.decode(content) : ArrayCharStream.read(path);
+                NameTable names = new NameTable();                 /* The ids of the identifiers => given by the lexer, used by the Symbol Tables */
+
+                if (phases != null || parallel){
+                    /* Lex the whole file before parsing, so every phase is measured on its own and the classes can be found before they're parsed */
+                    final List<Token> tokens = ReplayTokenManager.lex(stream, names);
+                    if (phases != null){
+                        phases.end();
+                        phases.tokens = tokens.size() - 1;
+                    }
+
+                    if (parallel){
+                        List<ParseException> syntaxErrors = new ArrayList<ParseException>();
+                        checked = check(() -> ParallelParser.parse(tokens, lean, syntaxErrors, ForkJoinPool.commonPool()), syntaxErrors, names, fileName, phases);
+                    }
+                    else
+                        parser = new MiniJavaParser(new ReplayTokenManager(tokens));
+                }
+                else
+                    parser = new MiniJavaParser(DfaTokenManager.of(stream, names));
+
+                if (parser != null){
+                    parser.lean = lean;
+                    parser.recover = true;                          /* Every syntax error of the file is reported */
+                    checked = check(parser, names, fileName, phases);
+                }
+
+                if (cache != null)
+                    cache.put(key, checked);
+            }
+
+            diagnostics.errors.addAll(checked.diagnostics());
+
+            if (checked.parsed())
+                out.println("\nFile: " + fileName + "\n");
+
+            /* Print offsets for this file => If there are no errors */
+            if (diagnostics.hasErrors())
+                return result;
+
+            if (phases != null) phases.begin("output");
+            out.println("-------------------- Output -------------------- \n");
+            checked.printOffsets(out);
+            if (phases != null) phases.end();
+        }
+        catch(TokenMgrError ex){
+            diagnostics.error(0, 0, "error: " + ex.getMessage());           /* Found while lexing for --stats or --parallel-parse */
+        }
+        catch(FileNotFoundException ex){
+            diagnostics.error(0, 0, "error: " + fileName + ex.getMessage().substring(path.toString().length()));    /* The name without the directory of the client */
+        }
+        catch(NoSuchFileException ex){
+            diagnostics.error(0, 0, "error: " + fileName + " (No such file or directory)");
+        }
+        catch(AccessDeniedException ex){
+            diagnostics.error(0, 0, "error: " + fileName + " (Permission denied)");
+        }
+        catch(IOException ex){
+            diagnostics.error(0, 0, "error: " + fileName + " (" + ex.getMessage() + ")");        /* A directory, read at once for --stats and the cache */
+        }
+        finally{
+            if (phases != null)
+                phases.end();                           /* The phase that failed => measured up to the error */
+
+            out.flush();
+            result.output = buffer.toString();
+        }
+        return result;
+    }
+
+    /* Parse and typecheck the file "fileName" with "parser", whose identifiers have their ids in "names" => measure the phases in "phases" if it isn't null */
+    static CheckResult check(MiniJavaParser parser, NameTable names, String fileName, CompileStats phases){
+        return check(parser::Goal, parser.syntaxErrors, names, fileName, phases);
+    }
+
+    /* Typecheck the tree that "parse" makes => for the trees that aren't made by Goal() on this thread, with the errors it recovered from in "syntaxErrors" */
+    static CheckResult check(Callable<Goal> parse, List<ParseException> syntaxErrors, NameTable names, String fileName, CompileStats phases){
+
+        Diagnostics diagnostics = new Diagnostics();            /* Every error of this file => the passes keep checking after an error */
+        boolean parsed = false;
+        List<ClassLayout> layout = new ArrayList<ClassLayout>();
+
+        try{
+            if (phases != null) phases.begin("parse");
+            ParseEvent parseEvent = new ParseEvent();
+            parseEvent.begin();
+            Goal root = parse.call();
+            if (parseEvent.shouldCommit()){
+                parseEvent.file = fileName;
+                parseEvent.commit();
+            }
+            if (phases != null){
+                phases.end();
+                phases.nodes = CompileStats.countNodes(root);
+            }
+
+            /* The errors that the parser recovered from => the rest of the tree is still checked, with an ErrorNode for every part that didn't parse */
+            for (ParseException ex : syntaxErrors)
+                syntaxError(ex, diagnostics);
+            parsed = syntaxErrors.isEmpty();
+            if (root.f0 == null)
+                return new CheckResult(parsed, diagnostics.sorted(), layout);       /* The MainClass didn't parse => there is no Symbol Table to begin with */
+
+            List<SymbolTable> st = new ArrayList<SymbolTable>();    /* The Symbol Tables of this file => shared by both passes */
+            ClassIndex classIndex = new ClassIndex(names);           /* Every class of this file by name => shared by both passes */
+            MyVisitor dataCollector  = new MyVisitor(false, st, classIndex, diagnostics);   /* Call MyVisitor for the 1st time to create the Symbol Table List */
+            MyVisitor typeCheck = new MyVisitor(true, st, classIndex, diagnostics);         /* Call MyVisitor for the 2nd time to do the typechecking */
+
+            if (phases != null) phases.begin("collect");
+            PassEvent.run(root, dataCollector, fileName, "collect");
+            if (phases != null){
+                phases.end();
+                phases.countSymbols(st);
+            }
+
+            if (phases != null) phases.begin("typecheck");
+            PassEvent.run(root, typeCheck, fileName, "typecheck");
+            if (phases != null) phases.end();
+
+            /* The offsets only exist if there are no errors */
+            if (!diagnostics.hasErrors())
+                for (SymbolTable table : st)
+                    layout.addAll(table.layout());
+        }
+        catch(ParseException ex){
+            syntaxError(ex, diagnostics);
+        }
+        catch(TokenMgrError ex){
+            diagnostics.error(0, 0, "error: " + ex.getMessage());
+        }
+        catch(RuntimeException ex){
+            throw ex;
+        }
+        catch(Exception ex){
+            throw new IllegalStateException("error while checking " + fileName, ex);
+        }
+
+        return new CheckResult(parsed, diagnostics.sorted(), layout);
+    }
+
+    /* Add the ParseException "ex" in "diagnostics" => one line with the token that was found and every token that could be there */
+    static void syntaxError(ParseException ex, Diagnostics diagnostics){
+
+        Token next = (ex.currentToken == null) ? null : ex.currentToken.next;
+        if (next == null || ex.expectedTokenSequences == null){
+            diagnostics.error(0, 0, "error: " + ex.getMessage());
+            return;
+        }
+
+        Set<String> expected = new LinkedHashSet<String>();
+        for (int[] sequence : ex.expectedTokenSequences){
+            StringBuilder tokens = new StringBuilder();
+            for (int kind : sequence)
+                tokens.append(tokens.length() == 0 ? "" : " ").append(ex.tokenImage[kind]);
+            expected.add(tokens.toString());
+        }
+
+        String found = (next.kind == MiniJavaParserConstants.EOF) ? ex.tokenImage[0] : "\"" + next + "\"";
+        diagnostics.error(next.beginLine, next.beginColumn, "error: syntax error: found " + found + ", expected one of: " + String.join(", ", expected));
+    }
+
+    /* Print the result of one file => the errors are printed in the standard error as "fileName:line:column: message" */
+    void report(CompileResult result){
+
+        out.print(result.output);
+        out.flush();
+
+        for (Diagnostic diagnostic : result.diagnostics.sorted())
+            err.println(result.fileName + ":" + diagnostic);
+        errors += result.diagnostics.errors.size();
+
+        if (result.stats != null){
+            err.print(result.stats.summary());
+            stats.add(result.stats);
+        }
+    }
+
+    /* Write the --stats summary of every compiled file in "statsFile" */
+    void writeStats() throws IOException {
+
+        if (statsFile == null)
+            return;
+
+        try (Writer json = new FileWriter(dir.resolve(statsFile).toFile())){
+            json.write("{\n  \"files\": [");
+            for (int i = 0; i < stats.size(); i++)
+                json.write((i == 0 ? "\n" : ",\n") + stats.get(i).toJson("    "));
+            json.write("\n  ]\n}\n");
+        }
+    }
+}
+
+/**
+ * The results of the files that were checked before, in a directory => the key of a result is the SHA-256 of the file's content and of the compiler
+ *
+ * Many compilers can share the directory => a result is written in a temporary file and renamed, so it's never read half written.
+ * The least recently used results (by last modified time) are deleted when the directory is larger than maxBytes.
+ */
+class ResultCache{
+
+    static final String VERSION = "minijava-1";                     /* Change it when the results change without changing the compiler's classes */
+    static final long DEFAULT_SIZE = 256L * 1024 * 1024;
+    static final int MAGIC = 0x4d4a5243;                            /* "MJRC" at the start of every result */
+    static final String SUFFIX = ".result";
+    static final Pattern RESULT_NAME = Pattern.compile("[0-9a-f]{64}\\.result");         /* The files of the cache => evict() never deletes another file of the directory */
+    static final Pattern TEMP_NAME = Pattern.compile("[0-9a-f]{64}[0-9]+\\.tmp");        /* A result that is written => its key and the number of Files.createTempFile */
+
+    static byte[] compilerHash = null;
+
+    Path dir;
+    long maxBytes;
+
+    public ResultCache(Path dir, long maxBytes){
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        compilerHash();                                             /* A compiler whose classes can't be read fails before it checks a file */
+    }
+
+    /* The hash of every class file of the compiler => a rebuilt compiler doesn't use the results of the old one */
+    static synchronized byte[] compilerHash(){
+
+        if (compilerHash == null){
+            try{
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+
+                for (Map.Entry<String,byte[]> classFile : compilerClasses().entrySet()){
+                    digest.update(classFile.getKey().getBytes(StandardCharsets.UTF_8));
+                    digest.update(classFile.getValue());
+                }
+                compilerHash = digest.digest();
+            }
+            catch(Exception ex){
+                throw new IllegalStateException("the classes of the compiler can't be read for the cache key", ex);
+            }
+        }
+        return compilerHash;
+    }
+
+    /* The packages of the compiler => the classes of the default package, and the JTB nodes and visitors */
+    static final String[] COMPILER_PACKAGES = {"", "syntaxtree/", "visitor/"};
+
+    /* The class files of COMPILER_PACKAGES in the directory or the jar that ResultCache was loaded from, by name => not the classes of subdirectories like bench/classes or tests/ */
+    static SortedMap<String,byte[]> compilerClasses() throws Exception {
+
+        CodeSource source = ResultCache.class.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null)
+            throw new IOException("ResultCache wasn't loaded from a directory or a jar");
+        Path location = Paths.get(source.getLocation().toURI());
+
+        SortedMap<String,byte[]> classes = new TreeMap<String,byte[]>();
+        if (Files.isDirectory(location)){
+            for (String compilerPackage : COMPILER_PACKAGES)
+                try (Stream<Path> files = Files.list(location.resolve(compilerPackage))){
+                    for (Path file : (Iterable<Path>) files::iterator)
+                        if (file.getFileName().toString().endsWith(".class"))
+                            classes.put(compilerPackage + file.getFileName(), Files.readAllBytes(file));
+                }
+        }
+        else {
+            try (JarFile jar = new JarFile(location.toFile())){
+                for (JarEntry entry : Collections.list(jar.entries())){
+                    String name = entry.getName();
+                    String compilerPackage = name.substring(0, name.lastIndexOf('/') + 1);
+                    if (name.endsWith(".class") && Arrays.asList(COMPILER_PACKAGES).contains(compilerPackage))
+                        try (InputStream classFile = jar.getInputStream(entry)){
+                            classes.put(name, classFile.readAllBytes());
+                        }
+                }
+            }
+        }
+
+        for (String compilerClass : new String[]{"ResultCache.class", "syntaxtree/Node.class", "visitor/Visitor.class"})
+            if (!classes.containsKey(compilerClass))
+                throw new IOException(compilerClass + " isn't in " + location);
+        return classes;
+    }
+
+    /* The key of a file with the content "content" */
+    public String key(byte[] content) throws Exception {
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(compilerHash());
+        digest.update(content);
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest())
+            hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    /* Return the result with the key "key" => null if it isn't in the cache or it can't be read */
+    public CheckResult get(String key){
+
+        Path file = dir.resolve(key + SUFFIX);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))){
+
+            if (in.readInt() != MAGIC)
+                return null;
+
+            boolean parsed = in.readBoolean();
+
+            List<Diagnostic> diagnostics = new ArrayList<Diagnostic>();
+            for (int i = in.readInt(); i > 0; i--)
+                diagnostics.add(new Diagnostic(in.readInt(), in.readInt(), in.readUTF()));
+
+            List<ClassLayout> layout = new ArrayList<ClassLayout>();
+            for (int i = in.readInt(); i > 0; i--){
+                String className = in.readUTF();
+                Map<String,Integer> fields = new LinkedHashMap<String,Integer>();
+                for (int j = in.readInt(); j > 0; j--)
+                    fields.put(in.readUTF(), in.readInt());
+                Map<String,Integer> methods = new LinkedHashMap<String,Integer>();
+                for (int j = in.readInt(); j > 0; j--)
+                    methods.put(in.readUTF(), in.readInt());
+                layout.add(new ClassLayout(className, fields, methods));
+            }
+            CheckResult result = new CheckResult(parsed, diagnostics, layout);
+
+            /* Used now => the last one to be evicted */
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return result;
+        }
+        catch(IOException ex){          /* Not in the cache, evicted by another compiler or broken */
+            return null;
+        }
+    }
+
+    /* Keep the result "result" with the key "key" => a result that can't be written is skipped */
+    public void put(String key, CheckResult result){
+
+        Path temp = null;
+        try{
+            Files.createDirectories(dir);
+            temp = Files.createTempFile(dir, key, ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))){
+                out.writeInt(MAGIC);
+                out.writeBoolean(result.parsed());
+
+                out.writeInt(result.diagnostics().size());
+                for (Diagnostic diagnostic : result.diagnostics()){
+                    out.writeInt(diagnostic.line());
+                    out.writeInt(diagnostic.column());
+                    out.writeUTF(diagnostic.message());
+                }
+
+                out.writeInt(result.layout().size());
+                for (ClassLayout classLayout : result.layout()){
+                    out.writeUTF(classLayout.className());
+                    out.writeInt(classLayout.fields().size());
+                    for (Map.Entry<String,Integer> field : classLayout.fields().entrySet()){
+                        out.writeUTF(field.getKey());
+                        out.writeInt(field.getValue());
+                    }
+                    out.writeInt(classLayout.methods().size());
+                    for (Map.Entry<String,Integer> method : classLayout.methods().entrySet()){
+                        out.writeUTF(method.getKey());
+                        out.writeInt(method.getValue());
+                    }
+                }
+            }
+
+            /* Another compiler may write the same key at the same time => both results are the same, so the last rename wins */
+            Files.move(temp, dir.resolve(key + SUFFIX), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+        }
+        catch(IOException ex){
+            /* The cache is only a shortcut => the result was already found */
+        }
+        finally{
+            if (temp != null)
+                temp.toFile().delete();
+        }
+    }
+
+    /* Delete the least recently used results until the directory is smaller than maxBytes => and the temporary files that a killed compiler left */
+    public void evict(){
+
+        File[] files = dir.toFile().listFiles();
+        if (files == null)
+            return;
+
+        long now = System.currentTimeMillis();
+        long total = 0;
+        List<File> results = new ArrayList<File>();
+        Map<File,Long> lastUsed = new HashMap<File,Long>();     /* The time is read once => it may change while sorting */
+
+        for (File file : files){
+            if (RESULT_NAME.matcher(file.getName()).matches()){
+                results.add(file);
+                lastUsed.put(file, file.lastModified());
+                total += file.length();
+            }
+            else if (TEMP_NAME.matcher(file.getName()).matches() && now - file.lastModified() > 10 * 60 * 1000)
+                file.delete();
+        }
+
+        if (total <= maxBytes)
+            return;
+
+        results.sort(Comparator.comparingLong((File file) -> lastUsed.get(file)));
+        for (File file : results){
+            if (total <= maxBytes)
+                break;
+            long length = file.length();
+            if (file.delete())
+                total -= length;
+        }
+    }
+}
+
+class CompileResult{
+
+    String fileName;
+    String output;                              /* Everything the compilation printed in the standard output */
+    Diagnostics diagnostics;                    /* The errors of the file => empty if there are no errors */
+    CompileStats stats;                         /* The measurements of --stats or null */
+
+    public CompileResult(String fileName){
+        this.fileName = fileName;
+    }
+}
+
+/* Collects the errors of one file => shared by both passes of MyVisitor, which keep checking after every error */
+class Diagnostics{
+
+    List<Diagnostic> errors;
+    Set<Node> rejected;                         /* Declarations that the 1st pass didn't insert (e.g. double declarations) => the 2nd pass skips them */
+
+    public Diagnostics(){
+        this.errors = new ArrayList<Diagnostic>();
+        this.rejected = new HashSet<Node>();
+    }
+
+    public void error(int line, int column, String message){
+        errors.add(new Diagnostic(line, column, message));
+    }
+
+    /* Add an error at the first token of the node "at" */
+    public void error(Node at, String message) throws Exception {
+
+        NodeToken first = FirstToken.of(at);
+
+        if (first != null)
+            error(first.beginLine, first.beginColumn, message);
+        else
+            error(0, 0, message);
+    }
+
+    public boolean hasErrors(){
+        return !errors.isEmpty();
+    }
+
+    /* The errors in the order of their position in the file => the errors of the 1st pass are found before the errors of the 2nd */
+    public List<Diagnostic> sorted(){
+
+        List<Diagnostic> sorted = new ArrayList<Diagnostic>(errors);
+        sorted.sort(Comparator.comparingInt(Diagnostic::line).thenComparingInt(Diagnostic::column));
+        return sorted;
+    }
+}
+
+/* Finds the first token of a node => the position of an error, so the walk ends at the first NodeToken instead of going through the whole node */
+class FirstToken extends DepthFirstVisitor{
+
+    /* Ends the walk => like the LookaheadSuccess of the parser, one object without a stack trace */
+    static final class Found extends Exception{
+
+        private static final long serialVersionUID = 1L;
+
+        Found(){
+            super(null, null, false, false);
+        }
+    }
+
+    static final Found FOUND = new Found();
+
+    NodeToken token = null;
+
+    public void visit(NodeToken n) throws Exception {
+        token = n;
+        throw FOUND;
+    }
+
+    /* The first token of "node" => null if it has no token */
+    static NodeToken of(Node node) throws Exception {
+
+        FirstToken first = new FirstToken();
+        try{
+            node.accept(first);
+        }
+        catch(Found found){}
+        return first.token;
+    }
+}
+
+/* The measurements of --stats for one file => wall time, CPU time and allocated bytes of every phase, measured on the current thread */
+class CompileStats{
+
+    static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    static final Map<java.lang.Class<?>,List<Field>> NODE_FIELDS = new HashMap<java.lang.Class<?>,List<Field>>();
+
+    static{
+        if (THREADS.isThreadAllocatedMemorySupported() && !THREADS.isThreadAllocatedMemoryEnabled())
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        if (THREADS.isThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled())
+            THREADS.setThreadCpuTimeEnabled(true);
+    }
+
+    String fileName;
+    List<String> phases;                        /* The names of the phases in the order they ran */
+    List<long[]> times;                         /* {wall ns, cpu ns, allocated bytes} of every phase */
+    int tokens, nodes, classes, methods;
+    long[] start;                               /* The counters when the current phase began => null if no phase is running */
+
+    public CompileStats(String fileName){
+        this.fileName = fileName;
+        this.phases = new ArrayList<String>();
+        this.times = new ArrayList<long[]>();
+    }
+
+    static long[] now(){
+        long thread = Thread.currentThread().getId();
+        return new long[]{System.nanoTime(), THREADS.getCurrentThreadCpuTime(), THREADS.getThreadAllocatedBytes(thread)};
+    }
+
+    public void begin(String phase){
+        phases.add(phase);
+        start = now();
+    }
+
+    public void end(){
+        if (start == null)
+            return;
+        long[] end = now();
+        times.add(new long[]{end[0] - start[0], end[1] - start[1], end[2] - start[2]});
+        start = null;
+    }
+
+    /* Count the classes and methods of the Symbol Tables => done between the phases, so it isn't measured */
+    public void countSymbols(List<SymbolTable> st){
+
+        for (SymbolTable table : st){
+            classes += table.classList.size();
+            for (Class classEntry : table.classList)
+                methods += classEntry.funList.size();
+        }
+    }
+
+    /* Count the nodes under "node" => the fields of the syntax tree classes are found once with reflection */
+    static int countNodes(Node node) throws Exception {
+
+        if (node == null)
+            return 0;
+
+        int count = 1;
+        if (node instanceof NodeListInterface){
+            NodeListInterface list = (NodeListInterface) node;
+            for (int i = 0; i < list.size(); i++)
+                count += countNodes(list.elementAt(i));
+            return count;
+        }
+
+        for (Field field : nodeFields(node.getClass()))
+            count += countNodes((Node) field.get(node));
+        return count;
+    }
+
+    static synchronized List<Field> nodeFields(java.lang.Class<?> nodeClass){
+
+        List<Field> fields = NODE_FIELDS.get(nodeClass);
+        if (fields == null){
+            fields = new ArrayList<Field>();
+            for (Field field : nodeClass.getFields())
+                if (Node.class.isAssignableFrom(field.getType()))
+                    fields.add(field);
+            NODE_FIELDS.put(nodeClass, fields);
+        }
+        return fields;
+    }
+
+    /* The table that is printed in the standard error */
+    public String summary(){
+
+        StringBuilder str = new StringBuilder();
+        long[] total = new long[3];
+
+        str.append(String.format("%nStats: %s%n", fileName));
+        str.append(String.format("  %-10s %12s %12s %14s%n", "phase", "wall ms", "cpu ms", "allocated KB"));
+        for (int i = 0; i < times.size(); i++){
+            long[] time = times.get(i);
+            str.append(String.format("  %-10s %12.3f %12.3f %14.1f%n", phases.get(i), time[0] / 1e6, time[1] / 1e6, time[2] / 1024.0));
+            for (int j = 0; j < 3; j++)
+                total[j] += time[j];
+        }
+        str.append(String.format("  %-10s %12.3f %12.3f %14.1f%n", "total", total[0] / 1e6, total[1] / 1e6, total[2] / 1024.0));
+        str.append(String.format("  tokens: %d, nodes: %d, classes: %d, methods: %d%n", tokens, nodes, classes, methods));
+        return str.toString();
+    }
+
+    public String toJson(String indent){
+
+        StringBuilder json = new StringBuilder();
+        json.append(indent + "{\n");
+        json.append(indent + "  \"file\": \"" + fileName.replace("\\", "\\\\").replace("\"", "\\\"") + "\",\n");
+        json.append(indent + "  \"tokens\": " + tokens + ", \"nodes\": " + nodes + ", \"classes\": " + classes + ", \"methods\": " + methods + ",\n");
+        json.append(indent + "  \"phases\": [");
+        for (int i = 0; i < times.size(); i++){
+            long[] time = times.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append(indent + "    {\"phase\": \"" + phases.get(i) + "\", \"wallNs\": " + time[0] + ", \"cpuNs\": " + time[1] + ", \"allocatedBytes\": " + time[2] + "}");
+        }
+        json.append("\n" + indent + "  ]\n");
+        json.append(indent + "}");
+        return json.toString();
+    }
+}
+
+/* Gives the parser tokens that were lexed before parsing => so --stats can measure the lexer and the parser apart */
+class ReplayTokenManager extends MiniJavaParserTokenManager{
+
+    List<Token> tokens;
+    int next;
+
+    public ReplayTokenManager(List<Token> tokens){
+        super(new JavaCharStream(new StringReader("")));
+        this.tokens = tokens;
+        this.next = 0;
+    }
+
+    /* Lex the whole "source" with the ids of the identifiers in "names" => the last token of the list is EOF */
+    static List<Token> lex(JavaCharStream source, NameTable names){
+
+        MiniJavaParserTokenManager lexer = DfaTokenManager.of(source, names);
+        List<Token> tokens = new ArrayList<Token>();
+        Token token;
+        do{
+            token = lexer.getNextToken();
+            tokens.add(token);
+        } while (token.kind != MiniJavaParserConstants.EOF);
+        return tokens;
+    }
+
+    @Override
+    public Token getNextToken(){
+        return (next < tokens.size()) ? tokens.get(next++) : tokens.get(tokens.size() - 1);
+    }
+}
+
+/*
+ * Parses the top-level classes of a file at the same time => the classes are found by matching the braces of the lexed tokens, and the classes of every
+ * task are parsed by their own MiniJavaParser on a ForkJoinPool
+ *
+ * The tree is the one that Goal() makes. A file whose braces don't match, or where a class doesn't parse on its own, is parsed again by Goal() on one
+ * thread, so its syntax errors are the ones that Goal() finds.
+ */
+class ParallelParser{
+
+    static final int TASK_TOKENS = 8192;        /* The classes of a task are split in two tasks while they have more tokens */
+
+    /* Parse "tokens", whose last token is EOF, with the tasks of "pool" => a Goal() that parses a file again recovers from its syntax errors if "syntaxErrors" isn't null, and adds them there */
+    static Goal parse(List<Token> tokens, boolean lean, List<ParseException> syntaxErrors, ForkJoinPool pool) throws ParseException {
+
+        int[] starts = classStarts(tokens);
+        if (starts != null){
+            Node[] classes = new Node[starts.length - 1];           /* The MainClass and then every TypeDeclaration */
+            if (pool.invoke(new ClassesTask(tokens, starts, 0, classes.length, classes, lean))){
+                NodeListOptional types = new NodeListOptional();
+                for (int i = 1; i < classes.length; i++)
+                    types.addNode(classes[i]);
+                types.nodes.trimToSize();
+
+                Token eof = tokens.get(tokens.size() - 1);
+                eof.beginColumn++; eof.endColumn++;                 /* Like Goal() */
+                return new Goal((MainClass) classes[0], types, JTBToolkit.makeNodeToken(eof));
+            }
+        }
+
+        /* The parsers of the tasks linked the tokens of their classes => Goal() must get every token from the list again */
+        for (Token token : tokens)
+            token.next = null;
+        MiniJavaParser parser = new MiniJavaParser(new ReplayTokenManager(tokens));
+        parser.lean = lean;
+        if (syntaxErrors != null){
+            parser.recover = true;
+            parser.syntaxErrors = syntaxErrors;
+        }
+        return parser.Goal();
+    }
+
+    /* The index of the first token of every top-level class, and of EOF at the end => null if a class doesn't begin with "class" or its braces don't match */
+    static int[] classStarts(List<Token> tokens){
+
+        int[] starts = new int[64];
+        int count = 0;
+        int depth = 0;
+        boolean inClass = false;
+        int eof = tokens.size() - 1;
+
+        for (int i = 0; i < eof; i++){
+            int kind = tokens.get(i).kind;
+            if (!inClass){
+                if (kind != MiniJavaParserConstants.CLASS)
+                    return null;
+                if (count == starts.length)
+                    starts = Arrays.copyOf(starts, 2 * count);
+                starts[count++] = i;
+                inClass = true;
+            }
+            if (kind == MiniJavaParserConstants.LBRACE)
+                depth++;
+            else if (kind == MiniJavaParserConstants.RBRACE && --depth <= 0){
+                if (depth < 0)
+                    return null;
+                inClass = false;
+            }
+        }
+
+        if (inClass || count == 0)
+            return null;
+        starts = Arrays.copyOf(starts, count + 1);
+        starts[count] = eof;
+        return starts;
+    }
+
+    /* Parses the classes from "lo" up to "hi" => false if one of them has a syntax error */
+    static class ClassesTask extends RecursiveTask<Boolean>{
+
+        private static final long serialVersionUID = 1L;
+
+        List<Token> tokens;
+        int[] starts;
+        int lo, hi;
+        Node[] classes;
+        boolean lean;
+
+        ClassesTask(List<Token> tokens, int[] starts, int lo, int hi, Node[] classes, boolean lean){
+            this.tokens = tokens;
+            this.starts = starts;
+            this.lo = lo;
+            this.hi = hi;
+            this.classes = classes;
+            this.lean = lean;
+        }
+
+        @Override
+        protected Boolean compute(){
+
+            if (hi - lo > 1 && starts[hi] - starts[lo] > TASK_TOKENS){
+                int mid = (lo + hi) >>> 1;
+                ClassesTask left = new ClassesTask(tokens, starts, lo, mid, classes, lean);
+                left.fork();
+                boolean right = new ClassesTask(tokens, starts, mid, hi, classes, lean).compute();
+                return left.join() && right;
+            }
+
+            /* The tokens of the classes and an EOF => the parser can't read past the last class */
+            List<Token> slice = new ArrayList<Token>(tokens.subList(starts[lo], starts[hi]));
+            slice.add(new Token(MiniJavaParserConstants.EOF, ""));
+
+            MiniJavaParser parser = new MiniJavaParser(new ReplayTokenManager(slice));
+            parser.lean = lean;
+            try{
+                for (int i = lo; i < hi; i++)
+                    classes[i] = (i == 0) ? parser.MainClass() : parser.TypeDeclaration();
+                return parser.getNextToken().kind == MiniJavaParserConstants.EOF;
+            }
+            catch(ParseException ex){
+                return false;
+            }
+        }
+    }
+}
+
+/*
+ * Parses a file again after every edit => only the method around an edit is lexed and parsed again, and the other nodes of the last tree are kept
+ *
+ * An edit after the first token of a method and up to its last "}" parses that MethodDeclaration again. An edit elsewhere in a class, or in a method
+ * that doesn't parse on its own anymore, parses the class again, and any other edit parses the whole file. The tokens after the parsed declaration keep
+ * their nodes and only move to other lines, so a declaration is only parsed on its own if the token after it begins on a later line.
+ *
+ * The tree is never lean => the positions of its tokens are where the declarations begin and end in the text.
+ */
+class IncrementalParser{
+
+    static final int METHOD = 0, CLASS = 1, MAIN_CLASS = 2, FILE = 3;      /* What an edit parsed again */
+    static final int TAB_SIZE = 8;                                          /* Like JavaCharStream */
+
+    NameTable names;
+    char[] text;                                /* The file after the last edit, in its first "length" chars */
+    int length;
+    int[] lineStarts;                           /* The index of the first char of every line of the text */
+    int lines;
+    boolean tabs;                               /* The text had a tab => a column is found by walking its line */
+    Goal goal;                                  /* The tree of the text => null after a syntax error, so the next edit parses the whole file */
+    NodeToken[] tokens;                         /* The tokens of the tree in the order of the text, up to EOF => moved to other lines without walking the tree */
+    int tokenCount;
+    int reparsed;
+
+    IncrementalParser(String source, NameTable names){
+        this.names = names;
+        this.text = source.toCharArray();
+        this.length = text.length;
+        this.tabs = source.indexOf('\t') >= 0;
+        this.lineStarts = new int[64];
+        this.lines = 1;
+        addLines(0, length);
+    }
+
+    /* Parse the whole text */
+    Goal parse() throws Exception {
+        goal = null;
+        reparsed = FILE;
+        JavaCharStream stream = ArrayCharStream.of(Arrays.copyOf(text, length), length);       /* The tokens read their images from the stream => it gets its own copy */
+        Goal parsed = new MiniJavaParser(DfaTokenManager.of(stream, names)).Goal();
+
+        TokenList list = new TokenList();
+        parsed.accept(list);
+        tokens = list.tokens;
+        tokenCount = list.count;
+        goal = parsed;
+        return goal;
+    }
+
+    /* Replace the "removed" chars at "offset" with "inserted" and parse what they were in again => the tree of the new text */
+    Goal edit(int offset, int removed, String inserted) throws Exception {
+
+        if (offset < 0 || removed < 0 || offset + removed > length)
+            throw new IndexOutOfBoundsException(removed + " chars at " + offset + " in " + length + " chars");
+        int end = offset + removed;
+
+        /* The class and the method around the edit, with the offsets of the text before it => 0 is the MainClass and i is the TypeDeclaration i - 1 */
+        int typeIndex = -1, methodIndex = -1;
+        int typeStart = 0, typeLast = 0, methodStart = 0, methodLast = 0;
+        boolean typeAlone = false, methodAlone = false;
+
+        if (goal != null){
+            int found = around(goal.f1, offset, end);
+            typeIndex = (found >= 0) ? found + 1 : inside(goal.f0, offset, end) ? 0 : -1;
+        }
+        if (typeIndex >= 0){
+            Node type = type(typeIndex);
+            typeStart = offset(firstToken(type));
+            typeLast = offset(lastToken(type));
+            typeAlone = lastToken(type).endLine < next(typeIndex).beginLine;
+
+            NodeListOptional methods = methods(type);
+            methodIndex = (methods != null) ? around(methods, offset, end) : -1;
+            if (methodIndex >= 0){
+                Node method = methods.elementAt(methodIndex);
+                methodStart = offset(firstToken(method));
+                methodLast = offset(lastToken(method));
+                NodeToken next = (methodIndex + 1 < methods.size()) ? firstToken(methods.elementAt(methodIndex + 1)) : lastToken(type);
+                methodAlone = lastToken(method).endLine < next.beginLine;
+            }
+        }
+
+        int oldLines = lines;
+        replace(offset, removed, inserted);
+        int delta = inserted.length() - removed;
+
+        if (methodAlone){
+            Node method = parse(methodStart, methodLast + 1 + delta, METHOD);
+            if (method != null){
+                NodeListOptional methods = methods(type(typeIndex));
+                splice(methods.elementAt(methodIndex), method, lines - oldLines);
+                methods.nodes.set(methodIndex, method);
+                reparsed = METHOD;
+                return goal;
+            }
+        }
+
+        if (typeAlone){
+            int kind = (typeIndex == 0) ? MAIN_CLASS : CLASS;
+            Node type = parse(typeStart, typeLast + 1 + delta, kind);
+            if (type != null){
+                splice(type(typeIndex), type, lines - oldLines);
+                if (typeIndex == 0)
+                    goal.f0 = (MainClass) type;
+                else
+                    goal.f1.nodes.set(typeIndex - 1, type);
+                reparsed = kind;
+                return goal;
+            }
+        }
+
+        return parse();
+    }
+
+    /* Lex and parse the chars from "start" up to "stop" as one declaration of "kind" => null if they aren't exactly one, or have a unicode escape */
+    Node parse(int start, int stop, int kind){
+
+        /* The line of "start" up to it is blanked, with its tabs kept => the tokens get the columns of the text */
+        int line = line(start);
+        int prefix = start - lineStarts[line];
+        char[] region = new char[prefix + stop - start];
+        for (int i = 0; i < prefix; i++)
+            region[i] = (text[lineStarts[line] + i] == '\t') ? '\t' : ' ';
+        System.arraycopy(text, start, region, prefix, stop - start);
+
+        JavaCharStream stream = ArrayCharStream.of(region, region.length);
+        if (!(stream instanceof ArrayCharStream))
+            return null;
+
+        List<Token> tokens;
+        try{
+            tokens = ReplayTokenManager.lex(stream, names);
+        }
+        catch(TokenMgrError ex){
+            return null;                        /* A comment that only ends after the declaration, or a char that isn't MiniJava */
+        }
+        for (Token token : tokens){
+            token.beginLine += line;
+            token.endLine += line;
+        }
+
+        MiniJavaParser parser = new MiniJavaParser(new ReplayTokenManager(tokens));
+        try{
+            Node node = (kind == METHOD) ? parser.MethodDeclaration() : (kind == CLASS) ? parser.TypeDeclaration() : parser.MainClass();
+            return (parser.getNextToken().kind == MiniJavaParserConstants.EOF) ? node : null;
+        }
+        catch(ParseException ex){
+            return null;
+        }
+    }
+
+    /* Put the tokens of "node" in place of those of "old", and move the tokens after them down "shift" lines */
+    void splice(Node old, Node node, int shift) throws Exception {
+
+        int first = find(firstToken(old));
+        int last = find(lastToken(old));
+        TokenList list = new TokenList();
+        node.accept(list);
+
+        int newCount = tokenCount - (last + 1 - first) + list.count;
+        if (newCount > tokens.length)
+            tokens = Arrays.copyOf(tokens, Math.max(newCount, 2 * tokens.length));
+        System.arraycopy(tokens, last + 1, tokens, first + list.count, tokenCount - last - 1);
+        System.arraycopy(list.tokens, 0, tokens, first, list.count);
+        tokenCount = newCount;
+
+        if (shift != 0)
+            for (int i = first + list.count; i < tokenCount; i++){
+                NodeToken token = tokens[i];
+                token.beginLine += shift;
+                token.endLine += shift;
+                for (int j = 0; j < token.numSpecials(); j++){
+                    token.specialTokens.get(j).beginLine += shift;
+                    token.specialTokens.get(j).endLine += shift;
+                }
+            }
+    }
+
+    /* The index of "token" in "tokens" => they are sorted by their positions */
+    int find(NodeToken token){
+
+        int lo = 0, hi = tokenCount - 1;
+        while (lo < hi){
+            int mid = (lo + hi) >>> 1;
+            NodeToken other = tokens[mid];
+            if (other.beginLine < token.beginLine || (other.beginLine == token.beginLine && other.beginColumn < token.beginColumn))
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /* The last declaration of "list" that begins before "offset" => -1 if the chars up to "end" aren't inside it */
+    int around(NodeListOptional list, int offset, int end){
+
+        int lo = 0, hi = list.size() - 1, found = -1;
+        while (lo <= hi){
+            int mid = (lo + hi) >>> 1;
+            if (offset(firstToken(list.elementAt(mid))) < offset){
+                found = mid;
+                lo = mid + 1;
+            }
+            else
+                hi = mid - 1;
+        }
+        return (found >= 0 && inside(list.elementAt(found), offset, end)) ? found : -1;
+    }
+
+    /* The chars from "offset" up to "end" are after the first token of "declaration" and up to its last "}" */
+    boolean inside(Node declaration, int offset, int end){
+        return offset(firstToken(declaration)) < offset && end <= offset(lastToken(declaration));
+    }
+
+    Node type(int typeIndex){
+        return (typeIndex == 0) ? goal.f0 : goal.f1.elementAt(typeIndex - 1);
+    }
+
+    /* The first token after the class "typeIndex" */
+    NodeToken next(int typeIndex){
+        return (typeIndex < goal.f1.size()) ? firstToken(goal.f1.elementAt(typeIndex)) : goal.f2;
+    }
+
+    static Node declaration(Node node){
+        return (node instanceof TypeDeclaration) ? ((TypeDeclaration) node).f0.choice : node;
+    }
+
+    static NodeToken firstToken(Node node){
+        Node declaration = declaration(node);
+        if (declaration instanceof MethodDeclaration)
+            return ((MethodDeclaration) declaration).f0;
+        if (declaration instanceof ClassDeclaration)
+            return ((ClassDeclaration) declaration).f0;
+        if (declaration instanceof ClassExtendsDeclaration)
+            return ((ClassExtendsDeclaration) declaration).f0;
+        return ((MainClass) declaration).f0;
+    }
+
+    static NodeToken lastToken(Node node){
+        Node declaration = declaration(node);
+        if (declaration instanceof MethodDeclaration)
+            return ((MethodDeclaration) declaration).f12;
+        if (declaration instanceof ClassDeclaration)
+            return ((ClassDeclaration) declaration).f5;
+        if (declaration instanceof ClassExtendsDeclaration)
+            return ((ClassExtendsDeclaration) declaration).f7;
+        return ((MainClass) declaration).f17;
+    }
+
+    /* The MethodDeclarations of a class => null for the MainClass */
+    static NodeListOptional methods(Node node){
+        Node declaration = declaration(node);
+        if (declaration instanceof ClassDeclaration)
+            return ((ClassDeclaration) declaration).f4;
+        if (declaration instanceof ClassExtendsDeclaration)
+            return ((ClassExtendsDeclaration) declaration).f6;
+        return null;
+    }
+
+    /* The index of the first char of "token" in the text */
+    int offset(NodeToken token){
+
+        int start = lineStarts[token.beginLine - 1];
+        if (!tabs)
+            return start + token.beginColumn - 1;
+
+        /* A tab moves to the next multiple of TAB_SIZE, like JavaCharStream.UpdateLineColumn */
+        int column = 0;
+        for (int i = start; ; i++){
+            column += (text[i] == '\t') ? TAB_SIZE - (column % TAB_SIZE) : 1;
+            if (column >= token.beginColumn)
+                return i;
+        }
+    }
+
+    /* The line of the char "index", from 0 */
+    int line(int index){
+        int found = Arrays.binarySearch(lineStarts, 0, lines, index);
+        return (found >= 0) ? found : -found - 2;
+    }
+
+    /* Replace the "removed" chars at "offset" of the text with "inserted" => only the line breaks from the char before the edit to its end are found again */
+    void replace(int offset, int removed, String inserted){
+
+        int end = offset + removed;
+        int delta = inserted.length() - removed;
+        int kept = (offset == 0) ? 1 : line(offset - 1) + 1;        /* The line starts up to "offset" - 1 => a "\r" just before the edit may not end its line anymore */
+        int moved = lines - (line(end) + 1);                        /* The line starts after "end" => their breaks are chars after the edit */
+
+        if (length + delta > text.length)
+            text = Arrays.copyOf(text, Math.max(length + delta, 2 * text.length));
+        System.arraycopy(text, end, text, offset + inserted.length(), length - end);
+        inserted.getChars(0, inserted.length(), text, offset);
+        length += delta;
+        if (inserted.indexOf('\t') >= 0)
+            tabs = true;
+
+        int[] after = Arrays.copyOfRange(lineStarts, lines - moved, lines);
+        lines = kept;
+        addLines(Math.max(offset - 1, 0), offset + inserted.length());
+        for (int start : after)
+            addLine(start + delta);
+    }
+
+    /* Add the start of the line after every line break from the char "from" up to "to" => the rules of JavaCharStream.UpdateLineColumn, so "\r\n" is one break */
+    void addLines(int from, int to){
+        for (int i = from; i < to; i++){
+            char c = text[i];
+            if (c <= '\r' && (c == '\n' || (c == '\r' && (i + 1 == length || text[i + 1] != '\n'))))
+                addLine(i + 1);
+        }
+    }
+
+    void addLine(int start){
+        if (lines == lineStarts.length)
+            lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+        lineStarts[lines++] = start;
+    }
+
+    /* Collects the tokens of a tree in the order of the text */
+    static class TokenList extends DepthFirstVisitor{
+
+        NodeToken[] tokens = new NodeToken[64];
+        int count = 0;
+
+        @Override
+        public void visit(NodeToken n){
+            if (count == tokens.length)
+                tokens = Arrays.copyOf(tokens, 2 * count);
+            tokens[count++] = n;
+        }
+    }
+}
+
+/*
+ * A lexer over the whole file of an ArrayCharStream => one lookup in a transition table per char, instead of the NFA of the generated MiniJavaParserTokenManager
+ *
+ * It makes the same tokens, special tokens and lexical errors as the generated lexer, which still reads the files with unicode escapes.
+ */
+class DfaTokenManager extends MiniJavaParserTokenManager{
+
+    /* The classes of chars => every punctuation token has its own class, so its state knows the kind */
+    static final int OTHER_CHAR = 0, LETTER_CHAR = 1, ZERO_CHAR = 2, DIGIT_CHAR = 3, UNICODE_DIGIT_CHAR = 4, SLASH_CHAR = 5, STAR_CHAR = 6, NEWLINE_CHAR = 7, RETURN_CHAR = 8, AMPERSAND_CHAR = 9, PUNCTUATION_CHAR = 10;
+    static final String PUNCTUATIONS = "()[]{};.=<+-!,";
+    static final int CLASSES = PUNCTUATION_CHAR + PUNCTUATIONS.length();
+    static final int CLASS_BITS = 5;                                    /* A row of TRANSITIONS has 32 classes => the index of a transition is a shift and an or */
+
+    /* The states => DEAD is 0, so the transitions that aren't set go to it */
+    static final int DEAD = 0, START = 1, IN_IDENTIFIER = 2, IN_ZERO = 3, IN_INTEGER = 4, IN_SLASH = 5, IN_LINE = 6, IN_LINE_RETURN = 7, LINE_END = 8,
+                     IN_OPEN = 9, IN_OPEN_STAR = 10, IN_MULTI_LINE = 11, IN_MULTI_LINE_STAR = 12, IN_FORMAL = 13, IN_FORMAL_STAR = 14, MULTI_LINE_END = 15, FORMAL_END = 16,
+                     IN_AMPERSAND = 17, AND_END = 18, TIMES_END = 19, PUNCTUATION_ENDS = 20;
+    static final int STATES = PUNCTUATION_ENDS + PUNCTUATIONS.length();
+
+    static final byte[] CHAR_CLASSES = new byte[Character.MAX_VALUE + 1];
+    static final byte[] TRANSITIONS = new byte[STATES << CLASS_BITS];
+    static final int[] ACCEPTS = new int[STATES];                       /* The kind of the token that ends in every state => -1 if it doesn't end there */
+    static final int[] KEYWORDS = new int[64];                          /* The kind of every keyword at its perfect hash => the slots without a keyword are IDENTIFIER */
+
+    static final String PRINT_REST = ".out.println";                    /* "System.out.println" is one token => the rest of it after the identifier "System" */
+
+    static{
+        /* The ranges of LETTER and DIGIT of minijava.jj */
+        char[] letters = {'$', '$', 'A', 'Z', '_', '_', 'a', 'z', '\u00c0', '\u00d6', '\u00d8', '\u00f6', '\u00f8', '\u00ff',
+                          '\u0100', '\u1fff', '\u3040', '\u318f', '\u3300', '\u337f', '\u3400', '\u3d2d', '\u4e00', '\u9fff', '\uf900', '\ufaff'};
+        char[] digits = {'\u0660', '\u0669', '\u06f0', '\u06f9', '\u0966', '\u096f', '\u09e6', '\u09ef', '\u0a66', '\u0a6f', '\u0ae6', '\u0aef', '\u0b66', '\u0b6f',
+                         '\u0be7', '\u0bef', '\u0c66', '\u0c6f', '\u0ce6', '\u0cef', '\u0d66', '\u0d6f', '\u0e50', '\u0e59', '\u0ed0', '\u0ed9', '\u1040', '\u1049'};
+
+        for (int i = 0; i < letters.length; i += 2)
+            Arrays.fill(CHAR_CLASSES, letters[i], letters[i + 1] + 1, (byte) LETTER_CHAR);
+        for (int i = 0; i < digits.length; i += 2)
+            Arrays.fill(CHAR_CLASSES, digits[i], digits[i + 1] + 1, (byte) UNICODE_DIGIT_CHAR);
+        Arrays.fill(CHAR_CLASSES, '1', '9' + 1, (byte) DIGIT_CHAR);
+        CHAR_CLASSES['0'] = ZERO_CHAR;
+        CHAR_CLASSES['/'] = SLASH_CHAR;
+        CHAR_CLASSES['*'] = STAR_CHAR;
+        CHAR_CLASSES['\n'] = NEWLINE_CHAR;
+        CHAR_CLASSES['\r'] = RETURN_CHAR;
+        CHAR_CLASSES['&'] = AMPERSAND_CHAR;
+
+        Arrays.fill(ACCEPTS, -1);
+        transition(START, LETTER_CHAR, IN_IDENTIFIER);
+        transition(START, UNICODE_DIGIT_CHAR, IN_IDENTIFIER);            /* The generated lexer also starts an identifier with them */
+        transition(START, ZERO_CHAR, IN_ZERO);
+        transition(START, DIGIT_CHAR, IN_INTEGER);
+        transition(START, SLASH_CHAR, IN_SLASH);
+        transition(START, STAR_CHAR, TIMES_END);
+        transition(START, AMPERSAND_CHAR, IN_AMPERSAND);
+        transition(IN_AMPERSAND, AMPERSAND_CHAR, AND_END);
+
+        for (int i = 0; i < PUNCTUATIONS.length(); i++){
+            char c = PUNCTUATIONS.charAt(i);
+            CHAR_CLASSES[c] = (byte) (PUNCTUATION_CHAR + i);
+            transition(START, PUNCTUATION_CHAR + i, PUNCTUATION_ENDS + i);
+            ACCEPTS[PUNCTUATION_ENDS + i] = kind(String.valueOf(c));
+        }
+
+        /* <IDENTIFIER: <LETTER> (<LETTER>|<DIGIT>)*> and <INTEGER_LITERAL: ["1"-"9"] (["0"-"9"])* | "0"> */
+        transition(IN_IDENTIFIER, LETTER_CHAR, IN_IDENTIFIER);
+        transition(IN_IDENTIFIER, ZERO_CHAR, IN_IDENTIFIER);
+        transition(IN_IDENTIFIER, DIGIT_CHAR, IN_IDENTIFIER);
+        transition(IN_IDENTIFIER, UNICODE_DIGIT_CHAR, IN_IDENTIFIER);
+        transition(IN_INTEGER, ZERO_CHAR, IN_INTEGER);
+        transition(IN_INTEGER, DIGIT_CHAR, IN_INTEGER);
+
+        /* "//" up to "\n", "\r" or "\r\n" */
+        transition(IN_SLASH, SLASH_CHAR, IN_LINE);
+        all(IN_LINE, IN_LINE);
+        transition(IN_LINE, NEWLINE_CHAR, LINE_END);
+        transition(IN_LINE, RETURN_CHAR, IN_LINE_RETURN);
+        transition(IN_LINE_RETURN, NEWLINE_CHAR, LINE_END);
+
+        /* "/*" up to the first "*" + "/" => a FORMAL_COMMENT if it starts with "/**" and has a char between the stars, like "/***" + "/" */
+        transition(IN_SLASH, STAR_CHAR, IN_OPEN);
+        all(IN_OPEN, IN_MULTI_LINE);
+        transition(IN_OPEN, STAR_CHAR, IN_OPEN_STAR);
+        all(IN_OPEN_STAR, IN_FORMAL);
+        transition(IN_OPEN_STAR, STAR_CHAR, IN_FORMAL_STAR);
+        transition(IN_OPEN_STAR, SLASH_CHAR, MULTI_LINE_END);
+        all(IN_MULTI_LINE, IN_MULTI_LINE);
+        transition(IN_MULTI_LINE, STAR_CHAR, IN_MULTI_LINE_STAR);
+        all(IN_MULTI_LINE_STAR, IN_MULTI_LINE);
+        transition(IN_MULTI_LINE_STAR, STAR_CHAR, IN_MULTI_LINE_STAR);
+        transition(IN_MULTI_LINE_STAR, SLASH_CHAR, MULTI_LINE_END);
+        all(IN_FORMAL, IN_FORMAL);
+        transition(IN_FORMAL, STAR_CHAR, IN_FORMAL_STAR);
+        all(IN_FORMAL_STAR, IN_FORMAL);
+        transition(IN_FORMAL_STAR, STAR_CHAR, IN_FORMAL_STAR);
+        transition(IN_FORMAL_STAR, SLASH_CHAR, FORMAL_END);
+
+        ACCEPTS[IN_IDENTIFIER] = IDENTIFIER;
+        ACCEPTS[IN_ZERO] = ACCEPTS[IN_INTEGER] = INTEGER_LITERAL;
+        ACCEPTS[IN_LINE_RETURN] = ACCEPTS[LINE_END] = SINGLE_LINE_COMMENT;
+        ACCEPTS[MULTI_LINE_END] = MULTI_LINE_COMMENT;
+        ACCEPTS[FORMAL_END] = FORMAL_COMMENT;
+        ACCEPTS[AND_END] = AND;
+        ACCEPTS[TIMES_END] = kind("*");
+
+        /* Every keyword has its own slot => checked here, so a new keyword that collides fails at once */
+        Arrays.fill(KEYWORDS, IDENTIFIER);
+        for (int kind = BOOLEAN; kind <= VOID; kind++){
+            String image = jjstrLiteralImages[kind];
+            if (kind == PRINT)
+                continue;
+            int slot = hash(image.charAt(0), image.charAt(1), image.length());
+            if (KEYWORDS[slot] != IDENTIFIER)
+                throw new IllegalStateException("keywords " + image + " and " + jjstrLiteralImages[KEYWORDS[slot]] + " have the same hash");
+            KEYWORDS[slot] = kind;
+        }
+    }
+
+    static void transition(int state, int charClass, int next){
+        TRANSITIONS[(state << CLASS_BITS) | charClass] = (byte) next;
+    }
+
+    /* Every class of chars goes from "state" to "next" => the comments take any char */
+    static void all(int state, int next){
+        for (int charClass = 0; charClass < CLASSES; charClass++)
+            transition(state, charClass, next);
+    }
+
+    /* The kind of the literal token "image" */
+    static int kind(String image){
+        for (int kind = 0; kind < jjstrLiteralImages.length; kind++)
+            if (image.equals(jjstrLiteralImages[kind]))
+                return kind;
+        throw new IllegalArgumentException(image);
+    }
+
+    /* The perfect hash of the keywords => from the first two chars and the length */
+    static int hash(char first, char second, int length){
+        return (3 * (first + second) + length) & 63;
+    }
+
+    ArrayCharStream source;
+    NameTable names;                            /* The ids of the identifiers => shared with the MyVisitor passes of the file */
+    int length;
+    int start = 0;                              /* The chars of the last token that was scanned => from "start" up to "next" */
+    int next = 0;
+    int line = 1;                               /* The line of the last token => the number of lines that start before it */
+
+    DfaTokenManager(ArrayCharStream source, NameTable names){
+        super(source);
+        this.source = source;
+        this.names = names;
+        this.length = source.length;
+    }
+
+    /* The lexer of "stream" => a file with unicode escapes is only read by JavaCharStream, so it keeps the generated lexer */
+    static MiniJavaParserTokenManager of(JavaCharStream stream){
+        return of(stream, new NameTable());
+    }
+
+    /* The lexer of "stream" that gives the identifiers their ids in "names" */
+    static MiniJavaParserTokenManager of(JavaCharStream stream, NameTable names){
+        return (stream instanceof ArrayCharStream) ? new DfaTokenManager((ArrayCharStream) stream, names) : new MiniJavaParserTokenManager(stream);
+    }
+
+    @Override
+    public Token getNextToken(){
+
+        Token specialToken = null;
+
+        for (;;){
+            int kind = scan();
+
+            if (kind == EOF){
+                Token eof = token(Token.newToken(EOF, ""), length - 1, length - 1);
+                eof.specialToken = specialToken;
+                return eof;
+            }
+
+            /* An identifier => its name in the NameTable, an integer or a comment => a SourceToken, else the kind has one image that every token shares */
+            String image = jjstrLiteralImages[kind];
+            Token token;
+            if (image != null)
+                token = Token.newToken(kind, image);
+            else if (kind == IDENTIFIER)
+                token = new NameToken(kind, names, names.intern(source, start, next));
+            else
+                token = new SourceToken(kind, source, start, next);
+            token(token, start, next - 1);
+
+            if (kind > MULTI_LINE_COMMENT){
+                token.specialToken = specialToken;
+                return token;
+            }
+
+            /* A comment => the special tokens before a token are linked like in the generated lexer */
+            if (specialToken == null)
+                specialToken = token;
+            else{
+                token.specialToken = specialToken;
+                specialToken = (specialToken.next = token);
+            }
+        }
+    }
+
+    /* Scan the next token or comment without making its Token => its kind, and its chars from "start" up to "next" */
+    int scan(){
+
+        ArrayCharStream source = this.source;
+
+        /* SKIP: " ", "\t", "\n", "\r" and "\f" */
+        int start = next;
+        char c;
+        while (start < length && (c = source.charAt(start)) <= ' ' && (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f'))
+            start++;
+
+        if (start == length){
+            this.start = next = length;
+            return EOF;
+        }
+
+        /* The longest match => the DFA runs until it dies, and no state after an accepting state rejects, so the token ends there */
+        int state = START;
+        int end = start;
+        int to;
+        while (end < length && (to = TRANSITIONS[(state << CLASS_BITS) | CHAR_CLASSES[source.charAt(end)]]) != DEAD){
+            state = to;
+            end++;
+        }
+
+        int kind = ACCEPTS[state];
+        if (kind < 0)
+            throw error(start, end);
+
+        if (kind == IDENTIFIER){
+            kind = keyword(start, end);
+            if (kind == IDENTIFIER && end - start == 6 && matches(start, "System") && matches(end, PRINT_REST)){
+                kind = PRINT;
+                end += PRINT_REST.length();
+            }
+        }
+
+        this.start = start;
+        this.next = end;
+        return kind;
+    }
+
+    /* Fill the positions of "token" from the chars "first" to "last" */
+    Token token(Token token, int first, int last){
+
+        /* The tokens come in order => without tabs the line only moves forward and the column is the distance from the start of the line */
+        if (!source.tabs && first >= 0){
+            int[] lineStarts = source.lineStarts;
+            while (line < source.lines && lineStarts[line] <= first)
+                line++;
+            token.beginLine = line;
+            token.beginColumn = first - lineStarts[line - 1] + 1;
+        }
+        else{
+            token.beginLine = source.line(first);
+            token.beginColumn = source.column(first);
+        }
+
+        /* Only a comment can have a tab or a line break => every other token ends on its line, one column per char */
+        if (token.kind > MULTI_LINE_COMMENT){
+            token.endLine = token.beginLine;
+            token.endColumn = token.beginColumn + (last - first);
+        }
+        else{
+            token.endLine = source.line(last);
+            token.endColumn = source.column(last);
+        }
+        return token;
+    }
+
+    /* The kind of the identifier from "start" up to "end" => a keyword, or IN_IDENTIFIER */
+    int keyword(int start, int end){
+
+        int length = end - start;
+        if (length < 2 || length > 9)
+            return IDENTIFIER;
+
+        int kind = KEYWORDS[hash(source.charAt(start), source.charAt(start + 1), length)];
+        return (kind != IDENTIFIER && jjstrLiteralImages[kind].length() == length && matches(start, jjstrLiteralImages[kind])) ? kind : IDENTIFIER;
+    }
+
+    /* The chars at "index" are "chars" */
+    boolean matches(int index, String chars){
+        if (index + chars.length() > length)
+            return false;
+        for (int i = 0; i < chars.length(); i++)
+            if (source.charAt(index + i) != chars.charAt(i))
+                return false;
+        return true;
+    }
+
+    /* The error of the generated lexer => at the char where the DFA died, or after it if it's the last char of the file */
+    TokenMgrError error(int start, int dead){
+
+        int last = Math.min(dead, length - 1);
+        boolean eof = (last == length - 1);
+        char c = source.charAt(last);
+        int line = source.line(last);
+        int column = source.column(last);
+        int read = last - start + 1;                /* The chars that the generated lexer read for this token */
+
+        String after = (read <= 1) ? "" : source.image(start, eof ? last + 1 : last);
+        if (eof){
+            if (c == '\n' || c == '\r'){
+                line++;
+                column = 0;
+            }
+            else
+                column++;
+        }
+        return new TokenMgrError(eof, DEFAULT, line, column, after, c, TokenMgrError.LEXICAL_ERROR);
+    }
+}
+
+/*
+ * A syntax tree as parallel int arrays => every node is a row of the node arrays in pre-order, and every token is a row of the token arrays in the order of the file
+ *
+ * The children of a node are the rows after it up to its end, and the next sibling of a child starts at the end of the child. NodeChoice has no row => its
+ * chosen node takes its place. The passes walk a tree with its cursor methods or with a FlatVisitor, and the JTB tree can be dropped once it's flattened.
+ */
+class FlatTree{
+
+    /* The kind of every node => one for every class of the syntax tree, in the order of the grammar */
+    static final int
+        GOAL = 0, MAIN_CLASS = 1, TYPE_DECLARATION = 2, CLASS_DECLARATION = 3, CLASS_EXTENDS_DECLARATION = 4, VAR_DECLARATION = 5,
+        METHOD_DECLARATION = 6, FORMAL_PARAMETER_LIST = 7, FORMAL_PARAMETER = 8, FORMAL_PARAMETER_TAIL = 9, FORMAL_PARAMETER_TERM = 10, TYPE = 11,
+        ARRAY_TYPE = 12, BOOLEAN_TYPE = 13, INTEGER_TYPE = 14, STATEMENT = 15, BLOCK = 16, ASSIGNMENT_STATEMENT = 17,
+        ARRAY_ASSIGNMENT_STATEMENT = 18, IF_STATEMENT = 19, WHILE_STATEMENT = 20, PRINT_STATEMENT = 21, EXPRESSION = 22, AND_EXPRESSION = 23,
+        COMPARE_EXPRESSION = 24, PLUS_EXPRESSION = 25, MINUS_EXPRESSION = 26, TIMES_EXPRESSION = 27, ARRAY_LOOKUP = 28, ARRAY_LENGTH = 29,
+        MESSAGE_SEND = 30, EXPRESSION_LIST = 31, EXPRESSION_TAIL = 32, EXPRESSION_TERM = 33, PRIMARY_EXPRESSION = 34, INTEGER_LITERAL = 35,
+        TRUE_LITERAL = 36, FALSE_LITERAL = 37, IDENTIFIER = 38, THIS_EXPRESSION = 39, ARRAY_ALLOCATION_EXPRESSION = 40, ALLOCATION_EXPRESSION = 41,
+        NOT_EXPRESSION = 42, BRACKET_EXPRESSION = 43, ERROR_NODE = 44, NODE_LIST = 45, NODE_LIST_OPTIONAL = 46, NODE_OPTIONAL = 47,
+        NODE_SEQUENCE = 48, TOKEN = 49;
+
+    static final java.lang.Class<?>[] NODE_CLASSES = {
+        Goal.class, MainClass.class, TypeDeclaration.class, ClassDeclaration.class, ClassExtendsDeclaration.class, VarDeclaration.class,
+        MethodDeclaration.class, FormalParameterList.class, FormalParameter.class, FormalParameterTail.class, FormalParameterTerm.class, Type.class,
+        ArrayType.class, BooleanType.class, IntegerType.class, Statement.class, Block.class, AssignmentStatement.class,
+        ArrayAssignmentStatement.class, IfStatement.class, WhileStatement.class, PrintStatement.class, Expression.class, AndExpression.class,
+        CompareExpression.class, PlusExpression.class, MinusExpression.class, TimesExpression.class, ArrayLookup.class, ArrayLength.class,
+        MessageSend.class, ExpressionList.class, ExpressionTail.class, ExpressionTerm.class, PrimaryExpression.class, IntegerLiteral.class,
+        TrueLiteral.class, FalseLiteral.class, Identifier.class, ThisExpression.class, ArrayAllocationExpression.class, AllocationExpression.class,
+        NotExpression.class, BracketExpression.class, ErrorNode.class, NodeList.class, NodeListOptional.class, NodeOptional.class,
+        NodeSequence.class, NodeToken.class
+    };
+
+    static final Map<java.lang.Class<?>,Integer> KINDS = new HashMap<java.lang.Class<?>,Integer>();
+    static final Field[][] CHILDREN = new Field[NODE_CLASSES.length][];     /* The fields f0, f1, ... of every grammar class, in their order */
+
+    static{
+        for (int kind = 0; kind < NODE_CLASSES.length; kind++){
+            KINDS.put(NODE_CLASSES[kind], kind);
+            List<Field> fields = new ArrayList<Field>();
+            try{
+                if (kind < NODE_LIST)
+                    for (int i = 0;; i++)
+                        fields.add(NODE_CLASSES[kind].getField("f" + i));
+            }
+            catch (NoSuchFieldException end){}
+            CHILDREN[kind] = fields.toArray(new Field[0]);
+        }
+    }
+
+    NameTable names;                            /* The names of the identifiers and the integers of the tree */
+
+    int size = 0;
+    byte[] kind = new byte[256];
+    int[] end = new int[256];                   /* The row after the last node under every node */
+    int[] tokenStart = new int[257];            /* The first token of every node => a node has the tokens up to the first token of its end */
+
+    int tokens = 0;                             /* A token of MiniJava is on one line => it ends at its column + the length of its image - 1 */
+    byte[] tokenKind = new byte[128];
+    int[] image = new int[128];                 /* The id of the name of an identifier or an integer, -1 for the tokens with a fixed image */
+    int[] line = new int[128];
+    int[] column = new int[128];
+
+    FlatTree(NameTable names){
+        this.names = names;
+    }
+
+    /* Flatten the tree under "root" => the ids of the identifiers of DfaTokenManager are kept if they're ids of "names" */
+    static FlatTree of(Node root, NameTable names) throws Exception {
+
+        FlatTree tree = new FlatTree(names);
+        tree.add(root);
+        tree.trim();
+        return tree;
+    }
+
+    void add(Node node) throws Exception {
+
+        if (node instanceof NodeChoice){
+            add(((NodeChoice) node).choice);
+            return;
+        }
+
+        if (size == kind.length){
+            kind = Arrays.copyOf(kind, 2 * size);
+            end = Arrays.copyOf(end, 2 * size);
+            tokenStart = Arrays.copyOf(tokenStart, 2 * size + 1);
+        }
+        int row = size++;
+        tokenStart[row] = tokens;
+
+        if (node instanceof NodeToken){
+            kind[row] = (byte) TOKEN;
+            addToken((NodeToken) node);
+        }
+        else if (node instanceof NodeListInterface){
+            kind[row] = (byte) (int) KINDS.get(node.getClass());
+            NodeListInterface list = (NodeListInterface) node;
+            for (int i = 0; i < list.size(); i++)
+                add(list.elementAt(i));
+        }
+        else if (node instanceof NodeOptional){
+            kind[row] = (byte) NODE_OPTIONAL;
+            if (((NodeOptional) node).present())
+                add(((NodeOptional) node).node);
+        }
+        else{
+            int nodeKind = KINDS.get(node.getClass());
+            kind[row] = (byte) nodeKind;
+            for (Field field : CHILDREN[nodeKind])
+                add((Node) field.get(node));
+        }
+        end[row] = size;
+    }
+
+    void addToken(NodeToken token){
+
+        if (tokens == tokenKind.length){
+            tokenKind = Arrays.copyOf(tokenKind, 2 * tokens);
+            image = Arrays.copyOf(image, 2 * tokens);
+            line = Arrays.copyOf(line, 2 * tokens);
+            column = Arrays.copyOf(column, 2 * tokens);
+        }
+        int t = tokens++;
+        tokenKind[t] = (byte) token.kind;
+        line[t] = token.beginLine;
+        column[t] = token.beginColumn;
+
+        if (token.kind >= 0 && token.kind < MiniJavaParserTokenManager.jjstrLiteralImages.length && MiniJavaParserTokenManager.jjstrLiteralImages[token.kind] != null)
+            image[t] = -1;
+        else if (token instanceof NameNodeToken && ((NameNodeToken) token).names == names)
+            image[t] = ((NameNodeToken) token).id;
+        else
+            image[t] = names.intern(token.image());
+    }
+
+    /* Cut the arrays to their rows => the tree keeps no spare capacity */
+    void trim(){
+
+        tokenStart[size] = tokens;
+        kind = Arrays.copyOf(kind, size);
+        end = Arrays.copyOf(end, size);
+        tokenStart = Arrays.copyOf(tokenStart, size + 1);
+
+        tokenKind = Arrays.copyOf(tokenKind, tokens);
+        image = Arrays.copyOf(image, tokens);
+        line = Arrays.copyOf(line, tokens);
+        column = Arrays.copyOf(column, tokens);
+    }
+
+    /* The bytes of the arrays of the tree => without the NameTable, which the JTB tree shares too */
+    long bytes(){
+        long ints = (long) end.length + tokenStart.length + image.length + line.length + column.length;
+        return kind.length + tokenKind.length + 4 * ints + 7 * 16;
+    }
+
+    /* The cursor methods => a node is the int of its row, and -1 is no node */
+
+    int root(){
+        return size > 0 ? 0 : -1;
+    }
+
+    int kind(int node){
+        return kind[node];
+    }
+
+    int firstChild(int node){
+        return (node + 1 < end[node]) ? node + 1 : -1;
+    }
+
+    int nextSibling(int parent, int child){
+        int next = end[child];
+        return (next < end[parent]) ? next : -1;
+    }
+
+    int childCount(int node){
+        int count = 0;
+        for (int child = node + 1; child < end[node]; child = end[child])
+            count++;
+        return count;
+    }
+
+    /* The child number "index" of "node" => the field "f" + index of a grammar node, or the element "index" of a list */
+    int child(int node, int index){
+        int child = node + 1;
+        for (int i = 0; i < index && child < end[node]; i++)
+            child = end[child];
+        return (child < end[node]) ? child : -1;
+    }
 
-                fis = new FileInputStream(args[file]);
-                MiniJavaParser parser = new MiniJavaParser(fis);
+    /* The token of a TOKEN node */
+    int token(int node){
+        return tokenStart[node];
+    }
 
-                Goal root = parser.Goal();
-                System.out.println("\nFile: " + args[file] + "\n");
+    /* The first and the last token under "node" => -1 for a node without tokens, an empty list or optional */
+    int firstToken(int node){
+        return (tokenStart[node] < tokenStart[end[node]]) ? tokenStart[node] : -1;
+    }
 
-                MyVisitor dataCollector  = new MyVisitor(false);   /* Call MyVisitor for the 1st time to create the Symbol Table List */      
-                MyVisitor typeCheck = new MyVisitor(true);         /* Call MyVisitor for the 2nd time to do the typechecking */
-                
-                root.accept(dataCollector, null);
-                root.accept(typeCheck, null);
+    int lastToken(int node){
+        return (tokenStart[node] < tokenStart[end[node]]) ? tokenStart[end[node]] - 1 : -1;
+    }
+
+    /* The span of the token "token" */
+    int beginLine(int token){
+        return line[token];
+    }
+
+    int beginColumn(int token){
+        return column[token];
+    }
+
+    int endLine(int token){
+        return line[token];
+    }
+
+    int endColumn(int token){
+        return column[token] + image(token).length() - 1;
+    }
 
-                /* Print offsets for this file => If there are no errors */
-                System.out.println("-------------------- Output -------------------- \n");
-                typeCheck.output();                        
-                typeCheck.deleteSymbolTables();
+    /* The image of the token "token" => a fixed image of the lexer, or the name of its id */
+    String image(int token){
+        return (image[token] < 0) ? MiniJavaParserTokenManager.jjstrLiteralImages[tokenKind[token]] : names.name(image[token]);
+    }
+
+    /* The name id of the token of an Identifier node */
+    int nameId(int node){
+        return image[tokenStart[node]];
+    }
+
+    /* Walk the tree in pre-order with "visitor" => without recursion, so a deep tree needs no stack */
+    void walk(FlatVisitor visitor){
+
+        int[] open = new int[64];                   /* The entered nodes that are still open */
+        int depth = 0;
+
+        for (int node = 0; node < size;){
+            while (depth > 0 && node >= end[open[depth - 1]])
+                visitor.exit(this, open[--depth]);
+            if (visitor.enter(this, node)){
+                if (depth == open.length)
+                    open = Arrays.copyOf(open, 2 * depth);
+                open[depth++] = node;
+                node++;
             }
+            else
+                node = end[node];
         }
-        catch(ParseException ex){
-            System.out.println(ex.getMessage());
+        while (depth > 0)
+            visitor.exit(this, open[--depth]);
+    }
+}
+
+/* A pass over a FlatTree => exit is called for every node where enter returned true, after its children */
+interface FlatVisitor{
+
+    /* Return false to skip the children of "node" */
+    boolean enter(FlatTree tree, int node);
+
+    void exit(FlatTree tree, int node);
+}
+
+/* JFR event for parsing one file => the events of this file cost nothing if they aren't enabled in the recording */
+@Name("minijava.Parse")
+@Label("Parse")
+@Category("MiniJava")
+@Description("Parsing of a MiniJava file into a syntax tree")
+class ParseEvent extends Event{
+
+    @Label("File")
+    String file;
+}
+
+/* JFR event for one pass of MyVisitor over a file */
+@Name("minijava.Pass")
+@Label("Visitor Pass")
+@Category("MiniJava")
+@Description("One pass of MyVisitor over a file => collect builds the Symbol Tables, typecheck checks the statements")
+class PassEvent extends Event{
+
+    @Label("File")
+    String file;
+
+    @Label("Pass")
+    String pass;
+
+    /* Run the visitor "visitor" on "root" inside a PassEvent */
+    static void run(Goal root, MyVisitor visitor, String file, String pass) throws Exception {
+
+        PassEvent event = new PassEvent();
+        event.begin();
+        root.accept(visitor, null);
+        if (event.shouldCommit()){
+            event.file = file;
+            event.pass = pass;
+            event.commit();
         }
-        catch(FileNotFoundException ex){
-            System.err.println(ex.getMessage());
+    }
+}
+
+/* JFR event for one class declaration in one pass of MyVisitor */
+@Name("minijava.ClassDeclaration")
+@Label("Class Declaration")
+@Category("MiniJava")
+@Description("Collecting or type checking one class")
+@StackTrace(false)
+class ClassDeclarationEvent extends Event{
+
+    @Label("Class")
+    String className;
+
+    @Label("Pass")
+    String pass;
+}
+
+/* JFR event for a variable or method lookup that took longer than the threshold => change it with "minijava.SymbolResolution#threshold" */
+@Name("minijava.SymbolResolution")
+@Label("Slow Symbol Resolution")
+@Category("MiniJava")
+@Description("A variable or method lookup in the Symbol Tables that took longer than the threshold")
+@Threshold("100 us")
+@StackTrace(false)
+class SymbolResolutionEvent extends Event{
+
+    @Label("Kind")
+    String kind;                                /* "variable" or "method" */
+
+    @Label("Symbol")
+    String symbol;
+
+    @Label("Class")
+    String className;
+
+    @Label("Method")
+    String methodName;                          /* The method that the variable is used in => null for a method lookup */
+
+    @Label("Found")
+    boolean found;
+
+    void commit(String kind, String symbol, String className, String methodName, boolean found){
+        if (shouldCommit()){
+            this.kind = kind;
+            this.symbol = symbol;
+            this.className = className;
+            this.methodName = methodName;
+            this.found = found;
+            commit();
         }
-        finally{
-            try{
-                if(fis != null) fis.close();
-            }
-            catch(IOException ex){
-                System.err.println(ex.getMessage());
-            }
+    }
+}
+
+/* A semantic error found while building the Symbol Tables or while typechecking */
+class SemanticException extends Exception{
+
+    private static final long serialVersionUID = 1L;
+
+    public SemanticException(String message){
+        super(message);
+    }
+}
+
+/*
+ * A map with int keys => the ids of a NameTable, so a lookup hashes an int instead of a String
+ *
+ * Open addressing over the keys, and the entries stay in the order they were put, like in a LinkedHashMap.
+ */
+class IntMap<V>{
+
+    int[] keys;                                 /* The keys and the values in the order they were put */
+    Object[] values;
+    int size;
+    int[] slots;                                /* The index + 1 of the entry at every slot, 0 for an empty slot => null until the 1st put */
+
+    public IntMap(){
+        this.size = 0;
+    }
+
+    /* The index of the entry with the key "key" => -1 if it doesn't exist */
+    int index(int key){
+
+        if (slots == null)
+            return -1;
+
+        int mask = slots.length - 1;
+        for (int slot = spread(key) & mask;; slot = (slot + 1) & mask){
+            int entry = slots[slot] - 1;
+            if (entry < 0 || keys[entry] == key)
+                return entry;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key){
+        int entry = index(key);
+        return (entry < 0) ? null : (V) values[entry];
+    }
+
+    public boolean containsKey(int key){
+        return index(key) >= 0;
+    }
+
+    /* Put "value" at "key" => a key that exists keeps its place in the order */
+    public void put(int key, V value){
+
+        int entry = index(key);
+        if (entry >= 0){
+            values[entry] = value;
+            return;
+        }
+
+        if (slots == null){
+            keys = new int[4];
+            values = new Object[4];
+            slots = new int[8];
+        }
+        else if (size == keys.length){
+            keys = Arrays.copyOf(keys, 2 * size);
+            values = Arrays.copyOf(values, 2 * size);
         }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+
+        /* The slots are doubled when they're half full */
+        if (2 * size > slots.length){
+            slots = new int[2 * slots.length];
+            for (int i = 0; i < size; i++)
+                slots[place(keys[i])] = i + 1;
+        }
+        else
+            slots[place(key)] = size;
+    }
+
+    /* The slot of "key" => the first empty slot if it isn't there */
+    int place(int key){
+        int mask = slots.length - 1;
+        int slot = spread(key) & mask;
+        while (slots[slot] != 0 && keys[slots[slot] - 1] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    /* The key of the entry with index "i" in the order they were put */
+    public int keyAt(int i){
+        return keys[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V valueAt(int i){
+        return (V) values[i];
+    }
+
+    static int spread(int key){
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
+
+/* The type of a variable, a function or an expression => there is only one TypeSymbol for every type, so types are compared with "==" */
+class TypeSymbol{
+
+    static final TypeSymbol INT = new TypeSymbol("int", -1);
+    static final TypeSymbol BOOLEAN = new TypeSymbol("boolean", -1);
+    static final TypeSymbol INT_ARRAY = new TypeSymbol("int[]", -1);
+    static final TypeSymbol STRING_ARRAY = new TypeSymbol("String[]", -1);
+    static final TypeSymbol ERROR = new TypeSymbol("<error>", -1);     /* The type of an expression with an error => fits everywhere, so one error is reported once */
+
+    String name;
+    int classId;                                /* The id of the name of a class type => -1 for the other types */
+    Class classEntry;                           /* The class of a class type => null for the other types or if the class doesn't exist */
+
+    public TypeSymbol(String name, int classId){
+        this.name = name;
+        this.classId = classId;
+        this.classEntry = null;
+    }
+
+    /* Check if a value of this type can be assigned to a variable of type "target" => a class can be assigned to a parent class */
+    public boolean isAssignableTo(TypeSymbol target){
+        if (this == ERROR || target == ERROR)
+            return true;
+        return (this == target) || (this.classEntry != null && target.classId >= 0 && this.classEntry.isSubclass(target.classId));
+    }
+
+    public String toString(){
+        return this.name;
     }
 }
 
 class Function{
 
     String funName;
-    String funType;                             /* The return type of the function */
+    int funId;                                  /* The id of "funName" in the NameTable */
+    TypeSymbol funType;                         /* The return type of the function */
     int numOfArgs;                              /* Τhe number of arguments in the function */
-    Map<String,String> argsArray;               /* A map with function arguments as keys and argument types as values */
-    Map<String,String> varArray;                /* A map with function variables as keys and variable types as values */
+    IntMap<TypeSymbol> argsArray;               /* A map with the ids of the function arguments as keys and argument types as values */
+    List<TypeSymbol> argTypes;                  /* The argument types in the order of the declaration */
+    IntMap<TypeSymbol> varArray;                /* A map with the ids of the function variables as keys and variable types as values */
 
-    public Function(String funName, String funType, int numOfArgs){
+    public Function(String funName, int funId, TypeSymbol funType, int numOfArgs){
 
         this.funName = funName;
+        this.funId = funId;
         this.funType = funType;
         this.numOfArgs = numOfArgs;
-        this.argsArray = new LinkedHashMap<String,String>(); 
-        this.varArray = new LinkedHashMap<String,String>(); 
+        this.argsArray = new IntMap<TypeSymbol>();
+        this.argTypes = new ArrayList<TypeSymbol>(numOfArgs);
+        this.varArray = new IntMap<TypeSymbol>();
     }
 }
 
 class Class{
 
     String className;
-    Map <String,String> classVarArray;      /* A map with class variables as keys and variable types as values */          
+    int classId;                            /* The id of "className" in the NameTable */
+    NameTable names;                        /* The names of the ids => for the JFR events */
+    Class parent;                           /* The class that this class extends => null if it doesn't extend another class */
+    IntMap <TypeSymbol> classVarArray;      /* A map with the ids of the class variables as keys and variable types as values */
     List <Function> funList;                /* A list with the class functions */
+    IntMap <Function> funMap;               /* A map with the class functions by the id of their name => same functions as funList */
 
-    public Class(String className){
-        this.className = className;
-        this.classVarArray = new LinkedHashMap<String,String>();
-        this.funList = new ArrayList<Function>();  
+    public Class(NameTable names, int classId, Class parent){
+        this.className = names.name(classId);
+        this.classId = classId;
+        this.names = names;
+        this.parent = parent;
+        this.classVarArray = new IntMap<TypeSymbol>();
+        this.funList = new ArrayList<Function>();
+        this.funMap = new IntMap<Function>();
     }
-}
 
-class SymbolTable{
+    /* Check if this class is the class with the name "parentId" or extends it => return "false" if it doesn't */
+    public boolean isSubclass(int parentId){
 
-    List <Class> classList;                             /* A list with all the classes */
-    
-    /* Create the Symbol Table */
-    public SymbolTable(String className){
-        this.classList = new ArrayList<Class>();
-        this.classList.add(new Class(className));  
-    }
+        for (Class c = this; c != null; c = c.parent)
+            if (c.classId == parentId)
+                return true;
 
-    /* Add a new class on the list */
-    public void enter(String className){
-        this.classList.add(new Class(className));
+        return false;
     }
 
-    /* Insert the variable "varName" in the class with index "currClassIndex" */
-    public void insertVarInClass(String varName, String varType, int currClassIndex){
-        (this.classList.get(currClassIndex)).classVarArray.put(varName, varType);        
-    }
+    /* Return the function with the name "functionId" of this class or of a parent class => null if it doesn't exist */
+    public Function resolveFunction(int functionId){
 
-    /* Insert the function "functionName" in the class with index "currClassIndex" */
-    public void insertMethodInClass(String functionName, String returnType, int numOfArgs, int currClassIndex){
-        (this.classList.get(currClassIndex)).funList.add(new Function(functionName, returnType, numOfArgs));
-        
-    }
+        SymbolResolutionEvent event = new SymbolResolutionEvent();
+        event.begin();
 
-    /* Insert a new argument "arguName" in the function "functionName" in the class with index "currClassIndex" */
-    public void inserArguInMethod(String functionName, String arguName, String arguType, int currClassIndex){
-        
-        int funIndex = 0;
-        for (int j = 0; j < this.classList.get(currClassIndex).funList.size(); j++) 
-            if (((this.classList.get(currClassIndex)).funList.get(j).funName).equals(functionName))
-                funIndex = j;
-            
-        (this.classList.get(currClassIndex)).funList.get(funIndex).argsArray.put(arguName, arguType);   
+        Function function = null;
+        for (Class c = this; c != null && function == null; c = c.parent)        /* For this class and every parent class */
+            function = c.funMap.get(functionId);
+
+        event.commit("method", names.name(functionId), className, null, function != null);
+        return function;
     }
 
-    /* Insert a new variable "varName" in the function "functionName" in the class with index "currClassIndex" */
-    public void inserVarInMethod(String functionName, String varName, String varType, int currClassIndex){
+    /* Returns first occurrence of variable "varId" used inside the function "functionId" of this class => Return null if var doesn't exist */
+    public TypeSymbol lookup(int varId, int functionId){
 
-        int funIndex = 0;
-        for (int j = 0; j < this.classList.get(currClassIndex).funList.size(); j++)
-            if (((this.classList.get(currClassIndex)).funList.get(j).funName).equals(functionName))
-                funIndex = j;
-            
-        (this.classList.get(currClassIndex)).funList.get(funIndex).varArray.put(varName, varType);
+        SymbolResolutionEvent event = new SymbolResolutionEvent();
+        event.begin();
+
+        TypeSymbol varType = find(varId, functionId);
+
+        event.commit("variable", names.name(varId), className, names.name(functionId), varType != null);
+        return varType;
     }
 
-    /* Returns first occurrence of variable "varName" used inside the function "functionName" => Return null if var doesn't exist in the Symbol Table  */
-    public String lookup(String varName, String functionName, int currClassIndex){
-        
-        String varType;
-        for (int i = currClassIndex; i >= 0; i--){                               /* For every class in this symbol table */
+    /* The search of lookup without the JFR event */
+    TypeSymbol find(int varId, int functionId){
 
-            for (int j = 0; j < this.classList.get(i).funList.size(); j++){                 /* For every function in the class with index i */
-                
-                if ((this.classList.get(i).funList.get(j).funName).equals(functionName)){       /* Find the function called "functionName" */
-                    
-                    /* Check function's local variables to find "varName" */
-                    varType =  this.classList.get(i).funList.get(j).varArray.get(varName);
+        TypeSymbol varType;
+        for (Class c = this; c != null; c = c.parent){        /* For this class and every parent class */
 
-                    if (varType != null)    /* If we find the variable in the map => return the variable's type */
-                        return varType;
+            Function function = c.funMap.get(functionId);            /* Find the function called "functionId" */
 
-                    /* Check function's arguments to find "varName" */
-                    varType =  this.classList.get(i).funList.get(j).argsArray.get(varName);
+            if (function != null){
 
-                    if (varType != null)
-                        return varType;
-                }
+                /* Check function's local variables to find "varId" */
+                varType = function.varArray.get(varId);
+
+                if (varType != null)    /* If we find the variable in the map => return the variable's type */
+                    return varType;
+
+                /* Check function's arguments to find "varId" */
+                varType = function.argsArray.get(varId);
+
+                if (varType != null)
+                    return varType;
             }
-            
+
             /* If the variable isn't in function's local variables or on function's arguments => Search the class variables */
-            varType = this.classList.get(i).classVarArray.get(varName);
+            varType = c.classVarArray.get(varId);
 
             if (varType != null)
-                return varType;     
+                return varType;
         }
-        return null;        /* The variable called "varName" wasn't found in the Symbol Table => return null */
+        return null;        /* The variable "varId" wasn't found => return null */
     }
+}
 
-    /* Check if class called "className" exists in this Symbol Table => return "false" if it doesn't */
-    public boolean findClassName(String className){
+class SymbolTable{
 
-        for (int i = this.classList.size() - 1; i >= 0; i--){                   /* For every class in the classList */
-            if ((this.classList.get(i).className).equals(className))
-                return true;
-        }
+    NameTable names;                                    /* The names of the ids of the file */
+    List <Class> classList;                             /* A list with all the classes */
+    IntMap <Class> classMap;                            /* A map with all the classes by the id of their name => same classes as classList */
 
-        return false;
+    /* Create the Symbol Table */
+    public SymbolTable(NameTable names, int classId){
+        this.names = names;
+        this.classList = new ArrayList<Class>();
+        this.classMap = new IntMap<Class>();
+        this.add(new Class(names, classId, null));
     }
 
-    /* Return the number of arguments of function called "functionName" or -1 if "functionName" doesn't exist */
-    public int getNumOfArguments(String functionName){
+    private void add(Class newClass){
+        this.classList.add(newClass);
+        this.classMap.put(newClass.classId, newClass);
+    }
 
-        for (int i = this.classList.size() - 1; i >= 0; i--){                      /* For every class in this symbol table */
-            for (int j = 0; j < this.classList.get(i).funList.size(); j++) {            /* For every function in the class */
+    /* Add a new class "classId" that extends the class "parentId" on the list => Return the new class */
+    public Class enter(int classId, int parentId){
+        Class newClass = new Class(names, classId, this.classMap.get(parentId));
+        this.add(newClass);
+        return newClass;
+    }
 
-                if ((this.classList.get(i).funList.get(j).funName).equals(functionName))
-                    return this.classList.get(i).funList.get(j).numOfArgs;
-            }
-        }   
-        return -1;
+    /* Insert the variable "varId" in the class with index "currClassIndex" */
+    public void insertVarInClass(int varId, TypeSymbol varType, int currClassIndex){
+        (this.classList.get(currClassIndex)).classVarArray.put(varId, varType);
     }
 
-    /* Function to search for a variable "varName" in function's called "functionName" arguments and local variables */
-    public String funVarReDeclaration(String varName, String functionName, int currClassIndex){     
+    /* Insert the function "functionId" in the class with index "currClassIndex" => Return the new function */
+    public Function insertMethodInClass(int functionId, TypeSymbol returnType, int numOfArgs, int currClassIndex){
+        Function function = new Function(names.name(functionId), functionId, returnType, numOfArgs);
+        (this.classList.get(currClassIndex)).funList.add(function);
+        (this.classList.get(currClassIndex)).funMap.put(functionId, function);
+        return function;
+    }
 
-        String type;
+    /* Return the function "functionId" declared in the class with index "currClassIndex" => null if it doesn't exist */
+    private Function getFunction(int functionId, int currClassIndex){
+        return (this.classList.get(currClassIndex)).funMap.get(functionId);
+    }
 
-        for (int j = 0; j < this.classList.get(currClassIndex).funList.size(); j++){                 /* Check every function in the class with index i */
-            
-            if ((this.classList.get(currClassIndex).funList.get(j).funName).equals(functionName)){       /* Find the function called "functionName" */
-            
-                type =  this.classList.get(currClassIndex).funList.get(j).argsArray.get(varName);        /* Check function's parameters to find "varName" */
+    /* Insert a new argument "arguId" in the function "functionId" in the class with index "currClassIndex" */
+    public void inserArguInMethod(int functionId, int arguId, TypeSymbol arguType, int currClassIndex){
+        Function function = this.getFunction(functionId, currClassIndex);
+        function.argsArray.put(arguId, arguType);
+        function.argTypes.add(arguType);
+    }
 
-                if (type != null)
-                    return type;
+    /* Insert a new variable "varId" in the function "functionId" in the class with index "currClassIndex" */
+    public void inserVarInMethod(int functionId, int varId, TypeSymbol varType, int currClassIndex){
+        this.getFunction(functionId, currClassIndex).varArray.put(varId, varType);
+    }
 
-                type = this.classList.get(currClassIndex).funList.get(j).varArray.get(varName);
+    /* Returns first occurrence of variable "varId" used inside the function "functionId" => Return null if var doesn't exist in the Symbol Table  */
+    public TypeSymbol lookup(int varId, int functionId, int currClassIndex){
+        return this.classList.get(currClassIndex).lookup(varId, functionId);
+    }
 
-                if (type != null)
-                    return type;
-            }
-        }
-        return null;        /* The variable called "varName" wasn't found => return null */
+    /* Check if class "classId" exists in this Symbol Table => return "false" if it doesn't */
+    public boolean findClassName(int classId){
+        return this.classMap.containsKey(classId);
     }
 
-    /* Function to search for a variable "varName" only in function's called "functionName" arguments */
-    public String funArguReDeclaration(String varName, String functionName, int currClassIndex){     
+    /* Function to search for a variable "varId" in function's "functionId" arguments and local variables */
+    public TypeSymbol funVarReDeclaration(int varId, int functionId, int currClassIndex){
 
-        for (int j = 0; j < this.classList.get(currClassIndex).funList.size(); j++){                 /* Check every function in the class with index i */
-            
-            if ((this.classList.get(currClassIndex).funList.get(j).funName).equals(functionName)){       /* Find the function called "functionName" */
-            
-                String type =  this.classList.get(currClassIndex).funList.get(j).argsArray.get(varName);        /* Check function's parameters to find "varName" */
+        Function function = this.getFunction(functionId, currClassIndex);        /* Find the function "functionId" */
 
-                if (type != null)
-                    return type;
-            }
-        }
-        return null;        /* The variable called "varName" wasn't found => return null */
+        if (function == null)
+            return null;
+
+        TypeSymbol type = function.argsArray.get(varId);        /* Check function's parameters to find "varId" */
+
+        if (type != null)
+            return type;
+
+        return function.varArray.get(varId);                 /* null if the variable "varId" wasn't found */
     }
 
-     /* Function to search for a variable "varName" only in function's called "functionName" arguments */
-     public String classVarReDeclaration(String varName, int currClassIndex){     
-        return this.classList.get(currClassIndex).classVarArray.get(varName);
+    /* Function to search for a variable "varId" only in function's "functionId" arguments */
+    public TypeSymbol funArguReDeclaration(int varId, int functionId, int currClassIndex){
+
+        Function function = this.getFunction(functionId, currClassIndex);        /* Find the function "functionId" */
+        return (function == null) ? null : function.argsArray.get(varId);        /* null if the variable "varId" wasn't found */
+    }
+
+     /* Function to search for a variable "varId" only in the class variables of the class with index "currClassIndex" */
+     public TypeSymbol classVarReDeclaration(int varId, int currClassIndex){
+        return this.classList.get(currClassIndex).classVarArray.get(varId);
     }
 
     /* Return the class name of the class with index "currClassIndex" */
@@ -239,228 +2356,358 @@ class SymbolTable{
         return this.classList.get(currClassIndex).className;
     }
 
-    /* Search for the function called "functionName" only inside the class called "className" => Return function's type if it exists */
-    public String findFunName(String functionName, String className){
-
-        for (int i = this.classList.size() - 1 ; i >= 0; i--){                               /* For every class in this symbol table */
-
-            if (this.classList.get(i).className.equals(className)){
-                for (int j = 0; j < this.classList.get(i).funList.size(); j++){                 /* Check every function in the class with index i */
-                    if ((this.classList.get(i).funList.get(j).funName).equals(functionName))       /* Find the function called "functionName" */
-                        return this.classList.get(i).funList.get(j).funType;
-                }
-            }
-        }
-        return null;
+    /* Return the id of the name of the class with index "currClassIndex" */
+    public int getClassId(int currClassIndex){
+        return this.classList.get(currClassIndex).classId;
     }
 
-    /* Search for the function called "functionName" in all the classes of this Symbol Table => Return function's type if it exists */
-    public String findFunName(String functionName){
+    /* Search for the function "functionId" only inside the class "classId" => Return function's type if it exists */
+    public TypeSymbol findFunName(int functionId, int classId){
 
-        for (int i = this.classList.size() - 1 ; i >= 0; i--){                               /* For every class in this symbol table */
+        SymbolResolutionEvent event = new SymbolResolutionEvent();
+        event.begin();
 
-            for (int j = 0; j < this.classList.get(i).funList.size(); j++){                 /* Check every function in the class with index i */
-                
-                if ((this.classList.get(i).funList.get(j).funName).equals(functionName))       /* Find the function called "functionName" */
-                    return this.classList.get(i).funList.get(j).funType;
-            }
-        }
-        return null;
-    }
+        Class c = this.classMap.get(classId);
+        Function function = (c == null) ? null : c.funMap.get(functionId);
 
-    /* Check if there is a method with the same name in a parent (only for classExtendsDeclaration) => if there is it must have the same arguments and the same return type*/
-    public void sameFunDefinition(String functionName, String argsList, String methodsType){
-        
-        for (int i = this.classList.size() - 1 ; i >= 0; i--){      /* For every class in this symbol table */
+        event.commit("method", names.name(functionId), names.name(classId), null, function != null);
+        return (function == null) ? null : function.funType;
+    }
 
-            for (int j = 0; j < this.classList.get(i).funList.size(); j++){       /* Check every function in the class with index i */
+    /* Check if there is a method with the same name as "function" in a parent of the class with index "currClassIndex" => if there is it must have the same arguments and the same return type*/
+    public void sameFunDefinition(Function function, int currClassIndex) throws SemanticException {
 
-                if ((this.classList.get(i).funList.get(j).funName).equals(functionName)){  /* Find if there is a function called "functionName" */
+        for (Class c = this.classList.get(currClassIndex).parent; c != null; c = c.parent){      /* For every parent class */
 
-                    String funType = this.classList.get(i).funList.get(j).funType;
+            Function parentFunction = c.funMap.get(function.funId);         /* Find if there is a function called "functionName" */
 
-                    /* Both methods should have the same return type */
-                    if (methodsType.equals(funType) == false){                   /* args[y] = argumentsType */   
-                        System.err.println("error: in method overriding function called: " + functionName);
-                        System.exit(1);
-                    }
+            if (parentFunction == null)
+                continue;
 
-                    /* Both arguments should have the same arguments (types and number) */
-                    String[] temp = argsList.split(", |,");
-                    
-                    for (int x = 0; x < temp.length ; x++){     /* Check if the function arguments match */
+            /* Both methods should have the same return type */
+            if (function.funType != parentFunction.funType){
+                throw new SemanticException("error: in method overriding function called: " + function.funName);
+            }
 
-                        String[] args = temp[x].split(" ");
+            /* Both arguments should have the same arguments (types and number) */
+            for (int i = 0; i < function.argsArray.size(); i++) {       /* Check if the function arguments match */
 
-                        for (int y = 0; y < args.length - 1; y+=2){
-                            
-                            /* args[y+1] = argumentsName */
-                            String argumentsType = this.classList.get(i).funList.get(j).argsArray.get(args[y+1]);
+                TypeSymbol argumentsType = parentFunction.argsArray.get(function.argsArray.keyAt(i));
 
-                            /* If argument doesn't exist or if arguments type doesn't match */
-                            if ((argumentsType == null) || (argumentsType.equals(args[y]) == false)){                   /* args[y] = argumentsType */   
-                                System.err.println("error: in method overriding function called: " + functionName);
-                                System.exit(1);
-                            }
-                        }
-                    }
+                /* If argument doesn't exist or if arguments type doesn't match */
+                if (argumentsType != function.argsArray.valueAt(i)){
+                    throw new SemanticException("error: in method overriding function called: " + function.funName);
                 }
             }
         }
     }
 
     /* Prints the Symbol Table and the offsets if there are no errors after typechecking */
-    public void PrintOffsets(){
+    public void PrintOffsets(PrintStream out){
+        for (ClassLayout classLayout : this.layout())
+            classLayout.print(out);
+    }
+
+    /* Return the offsets of every class of this Symbol Table => the offsets of a class continue from the offsets of the previous class */
+    public List<ClassLayout> layout(){
 
+        List<ClassLayout> layout = new ArrayList<ClassLayout>();
         int offset = 0;         /* offset for variables */
         int methodOffset = 0;   /* offset for functions */
 
         for (int i = 0; i < this.classList.size(); i++){
 
-            System.out.println(" ------------- Class " + this.classList.get(i).className + " ------------- ");
-            System.out.println(" --- Variables --- ");
+            Map<String,Integer> fields = new LinkedHashMap<String,Integer>();
+            Map<String,Integer> methods = new LinkedHashMap<String,Integer>();
 
-            for (Map.Entry<String, String> entry : this.classList.get(i).classVarArray.entrySet()) {            /* For every variable in the class */
+            IntMap<TypeSymbol> classVars = this.classList.get(i).classVarArray;
+            for (int v = 0; v < classVars.size(); v++) {            /* For every variable in the class */
 
-                if (entry.getValue().equals("String[]"))           /* Don't print the main's arguments type "String[]" */
+                if (classVars.valueAt(v) == TypeSymbol.STRING_ARRAY)           /* Don't print the main's arguments type "String[]" */
                     continue;
-                
-                System.out.println(this.classList.get(i).className + "." + entry.getKey() + " : " + offset);
 
-                if (entry.getValue().equals("boolean"))     /* Booleans are stored in 1 byte */
+                fields.put(names.name(classVars.keyAt(v)), offset);
+
+                if (classVars.valueAt(v) == TypeSymbol.BOOLEAN)     /* Booleans are stored in 1 byte */
                     offset += 1;
-                else if (entry.getValue().equals("int"))        /* Ints are stored in 4 bytes */
+                else if (classVars.valueAt(v) == TypeSymbol.INT)        /* Ints are stored in 4 bytes */
                     offset += 4;
                 else                                /* Pointers are stored in 8 bytes */
                     offset +=8;
             }
-            
-            System.out.println(" --- Methods --- ");
-            for (int j = 0; j < this.classList.get(i).funList.size(); j++){       /* For every function in the class */
-                
-                boolean flag = false;
 
-                for (int z = 0; z < i; z++){
+            for (int j = 0; j < this.classList.get(i).funList.size(); j++){       /* For every function in the class */
 
-                    for (int k = 0; k < this.classList.get(z).funList.size(); k++){     /* For every function in parent class */
+                boolean flag = false;
 
-                        /* If function already exists in class parent => dont print the address again */
-                        if (this.classList.get(i).funList.get(j).funName.equals(this.classList.get(z).funList.get(k).funName)){
-                            flag = true;
-                            break;
-                        }
-                    }
-                    if (flag)
-                        break;
-                }
+                /* If function already exists in a parent class => it doesn't get a new offset */
+                for (Class c = this.classList.get(i).parent; c != null && !flag; c = c.parent)
+                    flag = c.funMap.containsKey(this.classList.get(i).funList.get(j).funId);
 
-                if (flag)       /* Function exists in parent class => dont print => continue to the next function */
+                if (flag)       /* Function exists in parent class => continue to the next function */
                     continue;
 
-                System.out.println(this.classList.get(i).className + "." + this.classList.get(i).funList.get(j).funName + " : " + methodOffset);
+                methods.put(this.classList.get(i).funList.get(j).funName, methodOffset);
                 methodOffset+=8;    /* we consider functions as pointers => 8 bytes */
             }
+
+            layout.add(new ClassLayout(this.classList.get(i).className, fields, methods));
+        }
+        return layout;
+    }
+}
+
+/* All the classes of one file => finds the Symbol Table, the class entry and the type of a class by the id of its name */
+class ClassIndex{
+
+    NameTable names;                            /* The names of the identifiers of the file => the ids of the keys */
+    IntMap <Integer> tables;                    /* A map with class ids as keys and the index of the Symbol Table that contains the class as values */
+    IntMap <Class> classes;                     /* A map with class ids as keys and the class entries as values */
+    IntMap <TypeSymbol> types;                  /* A map with class ids as keys and the class types as values => one TypeSymbol for every class name */
+
+    public ClassIndex(){
+        this(new NameTable());
+    }
+
+    public ClassIndex(NameTable names){
+        this.names = names;
+        this.tables = new IntMap<Integer>();
+        this.classes = new IntMap<Class>();
+        this.types = new IntMap<TypeSymbol>();
+    }
+
+    /* Add the class "newClass" that is inside the Symbol Table with index "stIndex" */
+    public void insert(Class newClass, int stIndex){
+        this.tables.put(newClass.classId, stIndex);
+        this.classes.put(newClass.classId, newClass);
+        this.getType(newClass.classId).classEntry = newClass;
+    }
+
+    /* Return the index of the Symbol Table that contains the class "classId" => Return -1 if it doesn't exist */
+    public int findSTindex(int classId){
+        Integer stIndex = this.tables.get(classId);
+        return (stIndex == null) ? -1 : stIndex;
+    }
+
+    /* Return the class "classId" => Return null if it doesn't exist */
+    public Class getClass(int classId){
+        return this.classes.get(classId);
+    }
+
+    /* Return the type of the class "classId" => the class may be declared later in the file */
+    public TypeSymbol getType(int classId){
+
+        TypeSymbol type = this.types.get(classId);
+
+        if (type == null){
+            type = new TypeSymbol(names.name(classId), classId);
+            this.types.put(classId, type);
         }
+        return type;
     }
 }
 
-class MyVisitor extends GJDepthFirst<String,String>{
+class MyVisitor extends GJDepthFirst<TypeSymbol,String>{
 
-    static List <SymbolTable> st = new ArrayList<SymbolTable>();     /* The list with the SymbolTables */
+    List <SymbolTable> st;                                           /* The list with the SymbolTables => shared by the two passes of the same file */
+    ClassIndex classIndex;                                           /* Every class of the file by name => shared by the two passes of the same file */
     int currSymbolTable;                                             /* currSymbolTable = current ST index => We have a new Symbol table everytime we have a new ClassDeclaration */
-    int currClass;                                                   /* currClass = current class index inside of this ST => We have a new Class in the classList everytime we have a new ClassExtendsDeclaration */
+    Class currClass;                                                 /* The class that we are checking now */
+    int currMethod;                                                  /* The id of the name of the method that we are checking now => its variables are found by it */
+    TypeSymbol currClassType;                                        /* The type of "this" inside the class that we are checking now */
     boolean typeCheck;                                               /* If flag typecheck == true, it's the second time we call MyVisitor to check the variables */
+    Diagnostics diagnostics;                                         /* The errors of the file => shared by the two passes of the same file */
 
     /* Initialize MyVisitor variables */
-    public MyVisitor(boolean typeCheck){
+    public MyVisitor(boolean typeCheck, List<SymbolTable> st, ClassIndex classIndex, Diagnostics diagnostics){
         this.typeCheck = typeCheck;
+        this.st = st;
+        this.classIndex = classIndex;
+        this.diagnostics = diagnostics;
         this.currSymbolTable = 0;    
-        this.currClass = 0;
+        this.currClass = null;
+        this.currMethod = -1;
+        this.currClassType = null;
     }
 
-    /* Find the index of the Symbol Table that contains the class called "className" => Return -1 if it doesn't exist */
-    public int findSTindex(String className){
+    /* Find the index of the Symbol Table that contains the class "classId" => Return -1 if it doesn't exist */
+    public int findSTindex(int classId){
+        return classIndex.findSTindex(classId);
+    }
 
-        /* For every symbol table */         
-        for (int i = 0; i < st.size(); i++){
+    /* Function to print the offsets for every symbol table */
+    public void output(PrintStream out){
 
-            /* If you find the "className" return the st index */
-            if (st.get(i).findClassName(className)) 
-                return i;
-        }
-        return -1;
+        /* Print every symbolTable */
+        for (int i = 0; i < st.size(); i++)
+            st.get(i).PrintOffsets(out);
     }
 
-    /* Delete the list with the symbol tables */
-    public void deleteSymbolTables(){
-        st.clear();
+    /* Return the name of an identifier */
+    String name(Identifier n){
+        return n.f0.image();
     }
 
-    /* Function to print the offsets for every symbol table */
-    public void output(){
+    /* Return the id of the name of an identifier => given by DfaTokenManager, or found from the image for the tokens of the generated lexer */
+    int id(Identifier n){
+        NodeToken token = n.f0;
+        if (token instanceof NameNodeToken && ((NameNodeToken) token).names == classIndex.names)
+            return ((NameNodeToken) token).id;
+        return classIndex.names.intern(token.image());
+    }
 
-        /* Print every symbolTable */
-        for (int i = 0; i < st.size(); i++)
-            st.get(i).PrintOffsets();
+    /* Commit the JFR event of the class called "className" => only if the event is enabled */
+    void commit(ClassDeclarationEvent event, String className){
+        if (event.shouldCommit()){
+            event.className = className;
+            event.pass = typeCheck ? "typecheck" : "collect";
+            event.commit();
+        }
     }
 
-    /* Check if a string is numeric or not */
-    public boolean isNumeric(String str) { 
-        try{  
-            Integer.parseInt(str);  
-            return true;
-        } catch(NumberFormatException e){  
-            return false;  
-        }  
+    /* Start checking the class "classId" */
+    void enterClass(int classId){
+        this.currClass = classIndex.getClass(classId);
+        this.currClassType = classIndex.getType(classId);
     }
 
-    public void checkFunArguments(String functionName, ArrayList<String> argsTypeList, int currST){
+    /* Insert the class variables "varDecls" in the class with index "classIndex" of the Symbol Table with index "stIndex" */
+    void collectVariables(NodeListOptional varDecls, int stIndex, int classIndex) throws Exception {
 
-        for (int i = st.get(currST).classList.size() - 1 ; i >= 0; i--){        /* For every class in this symbol table */
+        for (int i = 0; i < varDecls.size(); ++i) {
+            if (varDecls.elementAt(i) instanceof ErrorNode)
+                continue;                       /* A declaration with a syntax error => already reported */
+            VarDeclaration varDecl = (VarDeclaration) varDecls.elementAt(i);
+            int varId = id(varDecl.f1);
+            TypeSymbol varType = varDecl.f0.accept(this, null);
+
+            /* Check if there is already a variable with the same name in the class => keep the first one */
+            if (st.get(stIndex).classVarReDeclaration(varId, classIndex) != null){
+                diagnostics.error(varDecl.f1, "error: class variable: " + name(varDecl.f1) + " double declaration");
+                continue;
+            }
+
+            /* Insert the class variables in this st */
+            st.get(stIndex).insertVarInClass(varId, varType, classIndex);
+        }
+    }
 
-            for (int j = 0; j < st.get(currST).classList.get(i).funList.size(); j++){     /* Check every function in the class with index j */
+    /* Insert the methods "methodDecls" with their arguments and variables in the class with index "classIndex" of the Symbol Table with index "stIndex" */
+    void collectMethods(NodeListOptional methodDecls, int stIndex, int classIndex) throws Exception {
 
-                if ((st.get(currST).classList.get(i).funList.get(j).funName).equals(functionName)){   /* Find the function called "functionName" */
-                
-                    List<String> values = new ArrayList(st.get(currST).classList.get(i).funList.get(j).argsArray.values());
+        SymbolTable table = st.get(stIndex);
+        int classId = table.getClassId(classIndex);
 
-                    for (int x = 0; x < argsTypeList.size(); x++){     /* Check if the function arguments match */
+        for (int i = 0; i < methodDecls.size(); ++i){
 
-                        boolean flag = false;
+            if (methodDecls.elementAt(i) instanceof ErrorNode)
+                continue;                       /* A declaration with a syntax error => already reported */
+            MethodDeclaration methodDecl = (MethodDeclaration) methodDecls.elementAt(i);
+            String methodName = name(methodDecl.f2);
+            int methodId = id(methodDecl.f2);
+            TypeSymbol methodsType = methodDecl.f1.accept(this, null);
 
-                        if (argsTypeList.get(x).equals(values.get(x)) == false){    /* If argument types do not match => check if it's a parent class*/
+            int numOfArgs = 0;                  /* Get the number of the arguments */
+            if (methodDecl.f4.present())
+                numOfArgs = 1 + ((FormalParameterList) methodDecl.f4.node).f1.f0.size();
 
-                            int stIndex = this.findSTindex(values.get(x));
+            /* Check if there is already a function with this name in the same class => error and the 2nd pass skips this method */
+            if (table.findFunName(methodId, classId) != null){
+                diagnostics.error(methodDecl.f2, "error: function " + methodName + " double Declaration");
+                diagnostics.rejected.add(methodDecl);
+                continue;
+            }
 
-                            if (stIndex != -1){     /* Check if "values.get(x)" is a className => then check if parent classes names match with the arguType*/
-                                                                
-                                for (int y = st.get(stIndex).classList.size() - 1 ; y >= 0; y--){
-                                    
-                                    if (st.get(stIndex).classList.get(y).className.equals(argsTypeList.get(x))){
-                                        flag = true;
-                                        break;
-                                    }
-                                }
+            /* Insert this class method in this Symbol Table */
+            Function function = table.insertMethodInClass(methodId, methodsType, numOfArgs, classIndex);
 
-                                if (flag)
-                                    continue;
-                            }
-                                System.err.println("error: argument types do not match: " + argsTypeList.get(x) + " and " + values.get(x) + " in function: " + functionName);
-                                System.exit(1);
-                        }   
-                    }
+            /* Insert function arguments in the symbol table */
+            if (methodDecl.f4.present()){
+
+                FormalParameterList params = (FormalParameterList) methodDecl.f4.node;
+                collectArgument(params.f0, function, table, classIndex);
+
+                for (int j = 0; j < params.f1.f0.size(); j++)
+                    collectArgument(((FormalParameterTerm) params.f1.f0.elementAt(j)).f1, function, table, classIndex);
+            }
+
+            /* Insert function variables in the symbol table */
+            NodeListOptional varDecls = methodDecl.f7;
+            for (int j = 0; j < varDecls.size(); ++j) {
+                if (varDecls.elementAt(j) instanceof ErrorNode)
+                    continue;
+                VarDeclaration varDecl = (VarDeclaration) varDecls.elementAt(j);
+                int varId = id(varDecl.f1);
+                TypeSymbol varType = varDecl.f0.accept(this, null);
+                
+                /* Check if an method's variable name is declared more than once (in arguments or in method's body)*/
+                if (table.funVarReDeclaration(varId, methodId, classIndex) != null){
+                    diagnostics.error(varDecl.f1, "error: double variable " + name(varDecl.f1) + " declaration in method: " + methodName);
+                    continue;
                 }
+                table.inserVarInMethod(methodId, varId, varType, classIndex);
+            }
+
+            /* Check if there is a method with the same name in a parent class => if there is it must have the same arguments and the same return type */
+            try{
+                table.sameFunDefinition(function, classIndex);
+            }
+            catch(SemanticException ex){
+                diagnostics.error(methodDecl.f2, ex.getMessage());
             }
         }
     }
 
+    /* Insert the argument "param" in the function "function" */
+    void collectArgument(FormalParameter param, Function function, SymbolTable table, int classIndex) throws Exception {
+
+        int arguId = id(param.f1);
+
+        /* Check if an argument name is declared more than once */
+        if (table.funArguReDeclaration(arguId, function.funId, classIndex) != null){
+            diagnostics.error(param.f1, "error: double variable " + name(param.f1) + " declaration in method: " + function.funName);
+            return;
+        }
+        table.inserArguInMethod(function.funId, arguId, param.f0.accept(this, null), classIndex);
+    }
+
+    /* Visit the statements "statDecls" of the method called "methodName" */
+    void checkStatements(NodeListOptional statDecls, String methodName) throws Exception {
+
+        for (int i = 0; i < statDecls.size(); ++i)
+            statDecls.elementAt(i).accept(this, methodName);
+    }
+
+    /* Return the type of the variable "id" used inside the method "methodName" => error and ERROR if it doesn't exist */
+    TypeSymbol lookup(Identifier id, String methodName) throws Exception {
+
+        TypeSymbol varType = currClass.lookup(id(id), currMethod);
+
+        if (varType == null){
+            diagnostics.error(id, "error: cannot find symbol: " + name(id) + " in method: " + methodName);
+            return TypeSymbol.ERROR;
+        }
+        return varType;
+    }
+
+    /* Check that the expression "expr" of the method "methodName" has the type "expected" => else the error "message" */
+    void expect(Node expr, TypeSymbol expected, String methodName, String message) throws Exception {
+
+        TypeSymbol found = expr.accept(this, methodName);
+
+        /* An expression with an error was already reported */
+        if (found != expected && found != TypeSymbol.ERROR){
+            diagnostics.error(expr, message);
+        }
+    }
+
     /**
      * f0 -> "class"
      * f1 -> Identifier()
      * f2 -> "{"
      * f3 -> "public"
      * f4 -> "static"
-     * f5 -> "String"
+     * f5 -> "void"
      * f6 -> "main"
      * f7 -> "("
      * f8 -> "String"
@@ -474,49 +2721,36 @@ class MyVisitor extends GJDepthFirst<String,String>{
      * f16 -> "}"
      * f17 -> "}"
      */
-    public String visit(MainClass n, String argu) throws Exception {
+    public TypeSymbol visit(MainClass n, String argu) throws Exception {
+
+        ClassDeclarationEvent event = new ClassDeclarationEvent();
+        event.begin();
+        String classname = name(n.f1);
 
         if (!typeCheck){
 
-            String classname = n.f1.accept(this,argu);
-            
-            st.add(new SymbolTable(classname));                                     /* add a new Symbol Table */
-            st.get(currSymbolTable).insertVarInClass(n.f11.accept(this,argu), "String[]", currClass);
-
-            NodeListOptional varDecls = n.f14;             /* f14 VARIABLE DECLARATIONS */
-            for (int i = 0; i < varDecls.size(); ++i) {
-                VarDeclaration varDecl = (VarDeclaration) varDecls.elementAt(i);
-                String varId = varDecl.f1.accept(this,argu);
-                String varType = varDecl.f0.accept(this,argu);
-
-                /* Check if there is already a variable with the same name in the class */
-                if (st.get(currSymbolTable).classVarReDeclaration(varId, currClass) != null){
-                    System.err.println("error: class variable: " + varId + " double declaration");
-                    System.exit(1);
-                }
+            st.add(new SymbolTable(classIndex.names, id(n.f1)));                   /* add a new Symbol Table */
+            classIndex.insert(st.get(currSymbolTable).classList.get(0), currSymbolTable);
+            st.get(currSymbolTable).insertVarInClass(id(n.f11), TypeSymbol.STRING_ARRAY, 0);
 
-                /* Insert the class variables in this st */
-                st.get(currSymbolTable).insertVarInClass(varId, varType, currClass);
-            }
+            collectVariables(n.f14, currSymbolTable, 0);             /* f14 VARIABLE DECLARATIONS */
             
         }else{      /* If it's time for typechecking */
         
-            NodeListOptional statDecls = n.f15;            /* Visit each statement */
-            for (int i = 0; i < statDecls.size(); ++i) {
-                Statement statDecl = (Statement) statDecls.elementAt(i);
-                statDecl.f0.accept(this,"main");
-            }
+            enterClass(id(n.f1));
+            currMethod = classIndex.names.intern("main");
+            checkStatements(n.f15, "main");           /* Visit each statement */
         }
-        
-        super.visit(n, argu);
-        return "Main Class";
+
+        commit(event, classname);
+        return null;
     }
 
     /**
     * f0 -> ClassDeclaration()
     *       | ClassExtendsDeclaration()
     */
-    public String visit(TypeDeclaration n, String argu) throws Exception {
+    public TypeSymbol visit(TypeDeclaration n, String argu) throws Exception {
         return n.f0.accept(this, argu);
     }
 
@@ -528,65 +2762,41 @@ class MyVisitor extends GJDepthFirst<String,String>{
      * f4 -> ( MethodDeclaration() )*
      * f5 -> "}"
      */
-    public String visit(ClassDeclaration n, String argu) throws Exception {
+    public TypeSymbol visit(ClassDeclaration n, String argu) throws Exception {
 
-        currSymbolTable++;                          /* Add a new symbol table for the new class declaration */
-        String className = n.f1.accept(this,argu);
+        ClassDeclarationEvent event = new ClassDeclarationEvent();
+        event.begin();
+        String className = name(n.f1);
 
-        if (!typeCheck){
-
-            /* Check if a class called "className" already exists */
-            if (this.findSTindex(className) != -1){
-                System.err.println("error: Class " + className + " double Declaration");
-                System.exit(1);
-            }
-
-            st.add(new SymbolTable(className));     /* Add a new Symbol Table */
-
-            NodeListOptional varDecls = n.f3;                   /* f3 Variable Declarations */
-            for (int i = 0; i < varDecls.size(); ++i) {
-                VarDeclaration varDecl = (VarDeclaration) varDecls.elementAt(i);
-                String varId = varDecl.f1.accept(this,argu);
-                String varType = varDecl.f0.accept(this,argu);
-
-                /* Check if there is already a variable with the same name in the class */
-                if (st.get(currSymbolTable).classVarReDeclaration(varId, currClass) != null){
-                    System.err.println("error: class variable: " + varId + " double declaration");
-                    System.exit(1);
-                }
-                /* Insert the class variables in this Symbol Table */
-                st.get(currSymbolTable).insertVarInClass(varId, varType, currClass);    
+        if (diagnostics.rejected.contains(n)){
+            /* A double declaration => found in the 1st pass */
+        }
+        else if (!typeCheck){
+
+            /* Check if a class called "className" already exists => error and the 2nd pass skips this class */
+            if (this.findSTindex(id(n.f1)) != -1){
+                diagnostics.error(n.f1, "error: Class " + className + " double Declaration");
+                diagnostics.rejected.add(n);
+                commit(event, className);
+                return null;
             }
 
-            NodeListOptional methodDecls = n.f4;                                      
-            for (int i = 0; i < methodDecls.size(); ++i){           /*  f4 Method Declarations */
+            currSymbolTable = st.size();            /* Add a new symbol table for the new class declaration */
+            st.add(new SymbolTable(classIndex.names, id(n.f1)));     /* Add a new Symbol Table */
+            classIndex.insert(st.get(currSymbolTable).classList.get(0), currSymbolTable);
 
-                MethodDeclaration methodDecl = (MethodDeclaration) methodDecls.elementAt(i);
-                String methodName = methodDecl.f2.accept(this,argu);
-                String methodsType = methodDecl.f1.accept(this,argu);
+            collectVariables(n.f3, currSymbolTable, 0);                 /* f3 Variable Declarations */
+            collectMethods(n.f4, currSymbolTable, 0);                   /* f4 Method Declarations */
 
-                int numOfArgs;
-                String argumentList = methodDecl.f4.present() ? methodDecl.f4.accept(this,argu) : "";      /* Get the function arguments */
-
-                /* Get the number of the arguments */
-                if (argumentList.isEmpty())
-                    numOfArgs = 0;
-                else{
-                    String[] args = argumentList.split(",");
-                    numOfArgs = args.length;
-                }
+        }else{      /* If it's time for typechecking */
 
-                /* Check if there is already a function with this name in the same class => error */
-                if (st.get(currSymbolTable).findFunName(methodName, className) != null){
-                    System.err.println("error: function " + methodName + " double Declaration");
-                    System.exit(1);
-                }else
-                    /* Insert this class method in this Symbol Table */
-                    st.get(currSymbolTable).insertMethodInClass(methodName, methodsType, numOfArgs, currClass);    
-            }
+            enterClass(id(n.f1));
+            for (int i = 0; i < n.f4.size(); ++i)
+                n.f4.elementAt(i).accept(this, argu);
         }
 
-        return super.visit(n, argu);
+        commit(event, className);
+        return null;
     }
 
     /**
@@ -599,80 +2809,58 @@ class MyVisitor extends GJDepthFirst<String,String>{
      * f6 -> ( MethodDeclaration() )*
      * f7 -> "}"
      */
-    public String visit(ClassExtendsDeclaration n, String argu) throws Exception {
-        
-        currClass++;                                    /* Add a new class in the current Symbol Table */
-        String className = n.f1.accept(this,argu);
+    public TypeSymbol visit(ClassExtendsDeclaration n, String argu) throws Exception {
 
-        if (!typeCheck){
+        ClassDeclarationEvent event = new ClassDeclarationEvent();
+        event.begin();
+        String className = name(n.f1);
+
+        if (diagnostics.rejected.contains(n)){
+            /* A double declaration => found in the 1st pass */
+        }
+        else if (!typeCheck){
 
-            String extendsClass = n.f3.accept(this,argu);
+            String extendsClass = name(n.f3);
             
             /* Find the symbolTable that contains the class called "extendsClass" that the new class called "className" extends */
-            int STindex = this.findSTindex(extendsClass);
-            
-            if (STindex == -1){
-                System.err.println("error: there is no class called: " + extendsClass);
-                System.exit(1);
+            int STindex = this.findSTindex(id(n.f3));
+
+            /* Check if a class called "className" already exists => error and the 2nd pass skips this class */
+            if (this.findSTindex(id(n.f1)) != -1){
+                if (STindex == -1)
+                    diagnostics.error(n.f3, "error: there is no class called: " + extendsClass);
+                diagnostics.error(n.f1, "error: Class " + className + " double Declaration");
+                diagnostics.rejected.add(n);
+                commit(event, className);
+                return null;
             }
 
-            st.get(STindex).enter(className);    /* Add a new class in the current Symbol Table with index (STIndex) */
-
-            NodeListOptional varDecls = n.f5;          /* f5 Variable Declarations */
-
-            for (int i = 0; i < varDecls.size(); ++i){
-                VarDeclaration varDecl = (VarDeclaration) varDecls.elementAt(i);
-                String varId = varDecl.f1.accept(this,argu);
-                String varType = varDecl.f0.accept(this,argu);
-
-                /* Check if there is already a variable with the same name in the class */
-                if (st.get(currSymbolTable).classVarReDeclaration(varId, currClass) != null){
-                    System.err.println("error: class variable: " + varId + " double declaration");
-                    System.exit(1);
-                }
-
-                /* Insert the class variables in this st */
-                st.get(STindex).insertVarInClass(varId,varType,currClass);
+            Class newClass;
+            if (STindex == -1){
+                /* Error => check the class as if it didn't extend another class */
+                diagnostics.error(n.f3, "error: there is no class called: " + extendsClass);
+                STindex = st.size();
+                st.add(new SymbolTable(classIndex.names, id(n.f1)));
+                newClass = st.get(STindex).classList.get(0);
             }
+            else
+                newClass = st.get(STindex).enter(id(n.f1), id(n.f3));      /* Add a new class in the current Symbol Table with index (STIndex) */
 
-            NodeListOptional methodDecls = n.f6;               /* f6 Method Declarations */
-            for (int i = 0; i < methodDecls.size(); ++i){
-
-                MethodDeclaration methodDecl = (MethodDeclaration) methodDecls.elementAt(i);
-                String methodName = methodDecl.f2.accept(this,argu);
-                String methodsType = methodDecl.f1.accept(this,argu);
+            classIndex.insert(newClass, STindex);
+            int newClassIndex = st.get(STindex).classList.size() - 1;
 
-                int numOfArgs; 
-                String argumentList = methodDecl.f4.present() ? methodDecl.f4.accept(this,argu) : "";      /* Get the function arguments */
+            collectVariables(n.f5, STindex, newClassIndex);          /* f5 Variable Declarations */
+            collectMethods(n.f6, STindex, newClassIndex);            /* f6 Method Declarations */
 
-                /* Get the number of the arguments */
-                if (argumentList.isEmpty())
-                    numOfArgs = 0;
-                else{
-                    String[] args = argumentList.split(",");
-                    numOfArgs = args.length;
-                }
+        }else{      /* If it's time for typechecking */
 
-                /* Check if there is a method with the same name in the new class => if there is it must have the same arguments and the same returj type*/
-                st.get(STindex).sameFunDefinition(methodName, argumentList, methodsType);
-                /* Insert this class method in this Symbol Table */
-                st.get(STindex).insertMethodInClass(methodName, methodsType, numOfArgs, currClass);    
-            }
+            enterClass(id(n.f1));
+            for (int i = 0; i < n.f6.size(); ++i)
+                n.f6.elementAt(i).accept(this, argu);
         }
 
-        super.visit(n, argu);
-        return "ClassExtendsDeclaration";
-    }
-
-    /**
-    * f0 -> Type()
-    * f1 -> Identifier()
-    * f2 -> ";"
-    */
-    public String visit(VarDeclaration n, String argu) throws Exception {
-        String myType = n.f0.accept(this,argu);
-        String myName = n.f1.accept(this,argu);
-        return myType + " " + myName;
+        commit(event, className);
+        return null;
     }
 
     /**
@@ -690,137 +2878,26 @@ class MyVisitor extends GJDepthFirst<String,String>{
      * f11 -> ";"
      * f12 -> "}"
      */
-    public String visit(MethodDeclaration n, String argu) throws Exception {
-        
-        String methodsType = n.f1.accept(this,argu);
-        String methodName = n.f2.accept(this,argu);
-
-        if (!typeCheck){
-
-            String argumentList = n.f4.present() ? n.f4.accept(this,argu) : "";
-            String[] temp = argumentList.split(", |,");
-                        
-            /* Insert function arguments in the symbol table */
-            for (int i = 0; i < temp.length ; i++){
-                String[] args = temp[i].split(" ");
-                for  (int j = 0; j < args.length - 1; j+=2){
-
-                    /* Check if an argument name is declared more than once */
-                    if (st.get(currSymbolTable).funArguReDeclaration(args[j+1], methodName, currClass) != null){
-                        System.err.println("error: double variable " + args[j+1] + " declaration in method: " + methodName);
-                        System.exit(1);
-                    }
-                    st.get(currSymbolTable).inserArguInMethod(methodName, args[j+1], args[j], currClass);       /* args[j+1] = arguName and args[j] = arguType */
-                }
-            }
-
-            /* Insert function variables in the symbol table */
-            NodeListOptional varDecls = n.f7;
-            for (int i = 0; i < varDecls.size(); ++i) {
-                VarDeclaration varDecl = (VarDeclaration) varDecls.elementAt(i);
-                String varId = varDecl.f1.accept(this,argu);
-                String varType = varDecl.f0.accept(this,argu);
-                
-                /* Check if an method's variable name is declared more than once (in arguments or in method's body)*/
-                if (st.get(currSymbolTable).funVarReDeclaration(varId, methodName, currClass) != null){
-                    System.err.println("error: double variable " + varId + " declaration in method: " + methodName);
-                    System.exit(1);
-                }
-                st.get(currSymbolTable).inserVarInMethod(methodName, varId, varType, currClass);
-            }
-            
-        }else{      /* If it's time for typechecking */
-
-            String returnVar = n.f10.accept(this, methodName);
-
-            /* If expression is a number => then the function must return int */
-            if (this.isNumeric(returnVar)){
-
-                if (methodsType.equals("int") == false){
-                    System.err.println("error: incompatible types: int cannot be converted to " + methodsType);
-                    System.exit(1);
-                }
-            
-            /* If expression is "true" or "false" => then the function must return boolean */
-            }else if (returnVar.equals("true") || returnVar.equals("false")){
-
-                if ((methodsType.equals("boolean") == false)){
-                    System.err.println("error: incompatible types: boolean cannot be converted to " + methodsType);
-                    System.exit(1);
-                }
-
-            }else{
-
-                String typeRetVar;
-
-                if (returnVar.equals("this"))                                        /* Return type is the className */
-                    typeRetVar = st.get(currSymbolTable).getClassName(currClass);
-
-                else if (returnVar.contains("MessageSend "))             /* If it's returning a function call then we alredy have the return type */
-                    typeRetVar = returnVar.replace("MessageSend ","");
-
-                else                                                                                /* If it's a variable get the varType */
-                    typeRetVar = st.get(currSymbolTable).lookup(returnVar, methodName, currClass);
-                
-                /* If we have different return types */
-                if ((methodsType.equals(typeRetVar) == false)){
-                    System.err.println("error: incompatible return types: "+ typeRetVar + " cannot be converted to " + methodsType);
-                    System.exit(1);
-                }
-            }
-
-            NodeListOptional statDecls = n.f8;              /* Visit each statement */
-            for (int i = 0; i < statDecls.size(); ++i) {
-                Statement statDecl = (Statement) statDecls.elementAt(i);
-                statDecl.f0.accept(this,methodName);
-            }          
-        }
+    public TypeSymbol visit(MethodDeclaration n, String argu) throws Exception {
         
-        return "MethodDeclaration";
-    }
+        /* A double declaration => found in the 1st pass */
+        if (diagnostics.rejected.contains(n))
+            return null;
 
-    /**
-     * f0 -> FormalParameter()
-     * f1 -> FormalParameterTail()
-     */
-    public String visit(FormalParameterList n, String argu) throws Exception {
-        String ret = n.f0.accept(this,argu);
+        String methodName = name(n.f2);
+        currMethod = id(n.f2);
+        TypeSymbol methodsType = currClass.funMap.get(currMethod).funType;
 
-        if (n.f1 != null) {
-            ret += n.f1.accept(this,argu);
-        }
-        return ret;
-    }
+        checkStatements(n.f8, methodName);              /* Visit each statement */
 
-    /**
-     * f0 -> FormalParameter()
-     * f1 -> FormalParameterTail()
-     */
-    public String visit(FormalParameterTerm n, String argu) throws Exception {
-        return n.f1.accept(this, argu);
-    }
+        TypeSymbol typeRetVar = n.f10.accept(this, methodName);
 
-    /**
-     * f0 -> ","
-     * f1 -> FormalParameter()
-     */
-    public String visit(FormalParameterTail n, String argu) throws Exception {
-        String ret = "";
-        for ( Node node: n.f0.nodes) {
-            ret += ", " + node.accept(this,argu);
+        /* The returned expression must have the method's type (or a class that extends it) */
+        if (!typeRetVar.isAssignableTo(methodsType)){
+            diagnostics.error(n.f10, "error: incompatible return types: "+ typeRetVar + " cannot be converted to " + methodsType);
         }
-        return ret;
-    }
 
-    /**
-     * f0 -> Type()
-     * f1 -> Identifier()
-     */
-      
-    public String visit(FormalParameter n, String argu) throws Exception{
-        String type = n.f0.accept(this,argu);
-        String name = n.f1.accept(this,argu);
-        return type + " " + name;
+        return null;
     }
 
     /**
@@ -829,7 +2906,11 @@ class MyVisitor extends GJDepthFirst<String,String>{
     *       | IntegerType()
     *       | Identifier()
     */
-    public String visit(Type n, String argu) throws Exception {
+    public TypeSymbol visit(Type n, String argu) throws Exception {
+
+        if (n.f0.choice instanceof Identifier)          /* A class type */
+            return classIndex.getType(id((Identifier) n.f0.choice));
+
         return n.f0.accept(this,argu);
     }
 
@@ -838,22 +2919,22 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> "["
     * f2 -> "]"
     */
-    public String visit(ArrayType n, String argu) {
-        return "int[]";
+    public TypeSymbol visit(ArrayType n, String argu) {
+        return TypeSymbol.INT_ARRAY;
     }
 
     /**
     * f0 -> "boolean"
     */
-    public String visit(BooleanType n, String argu) {
-        return "boolean";
+    public TypeSymbol visit(BooleanType n, String argu) {
+        return TypeSymbol.BOOLEAN;
     }
 
     /**
     * f0 -> "int"
     */
-    public String visit(IntegerType n, String argu) {
-        return "int";
+    public TypeSymbol visit(IntegerType n, String argu) {
+        return TypeSymbol.INT;
     }
 
     /**
@@ -864,7 +2945,7 @@ class MyVisitor extends GJDepthFirst<String,String>{
     *       | WhileStatement()
     *       | PrintStatement()
     */
-    public String visit(Statement n, String argu) throws Exception {
+    public TypeSymbol visit(Statement n, String argu) throws Exception {
         return n.f0.accept(this, argu);
     }
 
@@ -873,17 +2954,9 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> ( Statement() )*
     * f2 -> "}"
     */
-    public String visit(Block n, String argu) throws Exception {
-
-        if (typeCheck){
-
-            NodeListOptional statDecls = n.f1;                                       /* f1 STATEMENTS */
-            for (int i = 0; i < statDecls.size(); ++i) {
-                Statement statDecl = (Statement) statDecls.elementAt(i);
-                statDecl.f0.accept(this,argu);
-            }
-        }
-        return "Block";
+    public TypeSymbol visit(Block n, String methodName) throws Exception {
+        checkStatements(n.f1, methodName);
+        return null;
     }
 
     /**
@@ -892,90 +2965,17 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f2 -> Expression()
     * f3 -> ";"
     */ 
-    public String visit(AssignmentStatement n, String methodName) throws Exception {
-
-        String identifier = n.f0.accept(this,methodName);
-        String expr = n.f2.accept(this,methodName);
-
-        if (typeCheck){
-            
-            int stIndex = currSymbolTable;
-            String idType = st.get(stIndex).lookup(identifier, methodName,currClass);
-            
-            /* Check if the variable before the '=' (identifier) exists in the SymbolTable (has been declared) */
-            if (idType == null){                
-                System.err.println("error: cannot find symbol: " + identifier + " in method: " + methodName);
-                System.exit(1);
-            }
-
-            if (expr.contains("ArrayAllocationExpression ")){         /* If it's a new int[] (array allocation) */
-
-                /* idType must be int array */
-                if (idType.equals("int[]") == false){
-                    System.err.println("error: incompatible types: " + idType + " cannot be converted to int[]");
-                    System.exit(1);
-                }
-
-            }else if ((expr.contains("AllocationExpression"))){       /* If it's new class allocation e.g. new A() */
-
-                String className = expr.replace("AllocationExpression", "");
-
-                /* Check if idType and className match */
-                if (idType.equals(className) == false){
-                    System.err.println("error: incompatible types: " + idType + " cannot be converted to " + className);
-                    System.exit(1);
-                }
-
-            }else if (expr.contains("MessageSend ")){           /* If it's a message send */
-
-                String exprType = expr.replace("MessageSend ", "");
+    public TypeSymbol visit(AssignmentStatement n, String methodName) throws Exception {
 
-                /* Check if idType and exprType match */
-                if (idType.equals(exprType) == false){                
-                    System.err.println("error: incompatible types: " + idType + " cannot be converted to " + exprType);
-                    System.exit(1);
-                }
-
-            }else{       /* If it's a variable, or a number or a PrimaryExpression e.g. x + 5 */
-
-                String temp[] = expr.split(" ");    /* Split the expression in words */
-
-                for (int i = 0; i < temp.length ; i++){
+        /* Check if the variable before the '=' (identifier) exists in the SymbolTable (has been declared) */
+        TypeSymbol idType = lookup(n.f0, methodName);
+        TypeSymbol exprType = n.f2.accept(this, methodName);
 
-                    if (this.isNumeric(temp[i])){                          /* If it's a number */
-
-                        /* Identifier must be type int */
-                        if (idType.equals("int") == false){
-                            System.out.println(expr);
-                            System.err.println("error: incompatible types: " + idType + " cannot be converted to int");
-                            System.exit(1);
-                        }
-
-                    }else{
-
-                        /* Ignore symbols and words like "this", "true", "false" */
-                        if (!(temp[i].isEmpty() ||temp[i].contains(".")  || temp[i].contains("&&") || temp[i].contains("+") || temp[i].contains("-") || temp[i].contains("*") || temp[i].contains("ArrayLookup") 
-                        || temp[i].contains("length") || temp[i].contains("<") || temp[i].contains(")")|| temp[i].contains(",")|| temp[i].contains("this") || temp[i].contains("[") || temp[i].contains("true") || temp[i].contains("false"))){                      /* if temp[i] is a variable */
-                            
-                            String varType = st.get(stIndex).lookup(temp[i], methodName, currClass);
-
-                            /* Check if variable exists in the Symbol Table (has been declared) */
-                            if (varType == null){
-                                System.err.println("error: cannot find symbol: " + temp[i]);
-                                System.exit(1);
-                            }
-
-                            /* Check if idType and varType matches => or bad assignment */
-                            if (idType.equals(varType) == false){
-                                System.err.println("error: incompatible types: " + idType + " cannot be converted to " + varType);
-                                System.exit(1);
-                            }
-                        }
-                    }
-                }
-            }
+        /* Check if idType and exprType match => or bad assignment */
+        if (!exprType.isAssignableTo(idType)){
+            diagnostics.error(n.f2, "error: incompatible types: " + exprType + " cannot be converted to " + idType);
         }
-        return "AssignmentStatement";
+        return null;
     }
 
     /**
@@ -987,76 +2987,27 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f5 -> Expression()
     * f6 -> ";"
     */
-    public String visit(ArrayAssignmentStatement n, String identifier) throws Exception {
-
-        if (typeCheck){
-
-            String arraysName = n.f0.accept(this,identifier);
-            String index = n.f2.accept(this,identifier);
-            String expr = n.f5.accept(this,identifier);
-            String arraysType = st.get(currSymbolTable).lookup(arraysName, identifier, currClass);
-
-            /* Identifier or "arraysName" must be type "int[]" */
-            if (arraysType.equals("int[]") == false){
-                System.err.println("error: in array assignment: array required");
-                System.exit(1);
-            }
+    public TypeSymbol visit(ArrayAssignmentStatement n, String methodName) throws Exception {
 
-            /* Check the index => must be type int*/       
-            if (isNumeric(index)){                       /* If index is a number */
-                /* countinue */
-            }else{                                       /* If index is a variable => check variable's type */
+        TypeSymbol arraysType = currClass.lookup(id(n.f0), currMethod);
 
-                String indexType = st.get(currSymbolTable).lookup(index, identifier, currClass);
-                
-                /* Check if variable called "index" exists in the Symbol Table */
-                if (indexType == null){   
-                    System.err.println("error: in array assignment: cannot find symbol: " + index);
-                    System.exit(1);
-                }
-                
-                /* Ckeck if variable called "indexType" isn't type "int" */
-                if (indexType.equals("int") == false){       
-                    System.err.println("error: in array assignment index must be type int");
-                    System.exit(1);
-                }
-            }
-
-            /* Check expression => must be type int */
-            if (isNumeric(expr))                       /* If index is a number */
-                return "ArrayAssignmentStatement";
-
-            else if(expr.contains("ArrayLookup") || expr.contains("+") || expr.contains("-") || expr.contains("*"))    /* If it's a PrimaryExpression it's already checked */
-                return "ArrayAssignmentStatement";
-
-            else if (expr.contains("MessageSend ")){             /* If it's a message send */
+        /* Check if variable called "arraysName" exists in the Symbol Table */
+        if (arraysType == null){
+            diagnostics.error(n.f0, "error: in array assignment: cannot find symbol: " + name(n.f0));
+        }
 
-                String exprType = expr.replace("MessageSend ","");
+        /* Identifier or "arraysName" must be type "int[]" */
+        else if (arraysType != TypeSymbol.INT_ARRAY){
+            diagnostics.error(n.f0, "error: in array assignment: array required");
+        }
 
-                /* Ckeck if variable called "exprType" isn't type "int" */
-                if (exprType.equals("int") == false){       
-                    System.err.println("error: in array assignment expression must be type int");
-                    System.exit(1);
-                }
+        /* Check the index => must be type int*/       
+        expect(n.f2, TypeSymbol.INT, methodName, "error: in array assignment index must be type int");
 
-            }else{                                       /* If expr is a variable => check variable's type */
+        /* Check expression => must be type int */
+        expect(n.f5, TypeSymbol.INT, methodName, "error: in array assignment expression must be type int");
 
-                String exprType = st.get(currSymbolTable).lookup(expr, identifier, currClass);
-                
-                /* Check if variable called "expr" exists in the Symbol Table */
-                if (exprType == null){   
-                    System.err.println("error: in array assignment: cannot find symbol: " + expr);
-                    System.exit(1);
-                }
-                
-                /* Ckeck if variable called "exprType" isn't type "int" */
-                if (exprType.equals("int") == false){       
-                    System.err.println("error: in array assignment expression must be type int");
-                    System.exit(1);
-                }
-            }
-        }
-        return "ArrayAssignmentStatement";
+        return null;
     }
 
     /**
@@ -1068,11 +3019,11 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f5 -> "else"
     * f6 -> Statement()
     */
-    public String visit(IfStatement n, String argu) throws Exception {
-        n.f2.accept(this,argu);
-        n.f4.accept(this,argu);
-        n.f6.accept(this,argu);
-        return "IfStatement";
+    public TypeSymbol visit(IfStatement n, String methodName) throws Exception {
+        expect(n.f2, TypeSymbol.BOOLEAN, methodName, "error: in if statement: boolean required");
+        n.f4.accept(this, methodName);
+        n.f6.accept(this, methodName);
+        return null;
     }
 
     /**
@@ -1082,10 +3033,10 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f3 -> ")"
     * f4 -> Statement()
     */
-    public String visit(WhileStatement n, String argu) throws Exception {
-
-        n.f2.accept(this,argu);
-        return n.f4.accept(this,argu);
+    public TypeSymbol visit(WhileStatement n, String methodName) throws Exception {
+        expect(n.f2, TypeSymbol.BOOLEAN, methodName, "error: in while statement: boolean required");
+        n.f4.accept(this, methodName);
+        return null;
     }
 
     /**
@@ -1095,43 +3046,11 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f3 -> ")"
     * f4 -> ";"
     */
-    public String visit(PrintStatement n, String methodName) throws Exception {
+    public TypeSymbol visit(PrintStatement n, String methodName) throws Exception {
         
         /* only accept expressions of type int as the argument of the PrintStatement */
-        String varName = n.f2.accept(this, methodName);
-
-        if (typeCheck){
-
-            String varType = null;
-
-            if (this.isNumeric(varName))                            /* It's a number = int => ok */
-                return "System.out.println(" + varName + ")";
-            
-            else if ((varName.contains("+")) || (varName.contains("-")) || (varName.contains("*")))     /* It's a primary expression */
-                return "System.out.println(" + varName + ")";
-
-            else if (varName.contains("["))                         /* It's an index in an int array = int => ok */
-                return "System.out.println(" + varName + ")";
-
-            else if (varName.contains("MessageSend "))             /* It's a method call */
-                varType = varName.replace("MessageSend ","");
-
-            else                                                        /* It's a variable => get variable's type */
-                varType = st.get(currSymbolTable).lookup(varName, methodName, currClass);
-            
-            /* Check if variable exists in the Symbol Table (has been declared) */
-            if (varType == null){
-                System.err.println("error: in print statement: cannot find symbol: " + varName);
-                System.exit(1);
-            }
-
-            /* Identifier or "arraysName" must me type "int[]" */
-            if (varType.equals("int") == false){
-                System.err.println("error: in print statement: int required");
-                System.exit(1);
-            }
-        }
-        return "System.out.println(" + varName + ")";
+        expect(n.f2, TypeSymbol.INT, methodName, "error: in print statement: int required");
+        return null;
     }
 
     /**
@@ -1145,7 +3064,7 @@ class MyVisitor extends GJDepthFirst<String,String>{
     *       | MessageSend()
     *       | PrimaryExpression()
     */
-    public String visit(Expression n, String argu) throws Exception {
+    public TypeSymbol visit(Expression n, String argu) throws Exception {
         return n.f0.accept(this, argu);
     }
 
@@ -1154,8 +3073,10 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> "&&"
     * f2 -> PrimaryExpression()
     */
-    public String visit(AndExpression n, String argu) throws Exception {
-        return n.f0.accept(this,argu) + " && " +  n.f2.accept(this,argu);
+    public TypeSymbol visit(AndExpression n, String methodName) throws Exception {
+        expect(n.f0, TypeSymbol.BOOLEAN, methodName, "error: bad operand types for binary operator: &&");
+        expect(n.f2, TypeSymbol.BOOLEAN, methodName, "error: bad operand types for binary operator: &&");
+        return TypeSymbol.BOOLEAN;
     }
 
     /**
@@ -1163,8 +3084,10 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> "<"
     * f2 -> PrimaryExpression()
     */
-    public String visit(CompareExpression n, String argu) throws Exception {
-        return n.f0.accept(this,argu) + " < " +  n.f2.accept(this,argu);
+    public TypeSymbol visit(CompareExpression n, String methodName) throws Exception {
+        expect(n.f0, TypeSymbol.INT, methodName, "error: bad operand types for binary operator: <");
+        expect(n.f2, TypeSymbol.INT, methodName, "error: bad operand types for binary operator: <");
+        return TypeSymbol.BOOLEAN;
     }
 
     /**
@@ -1172,8 +3095,10 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> "+"
     * f2 -> PrimaryExpression()
     */
-    public String visit(PlusExpression n, String methodName) throws Exception {
-        return n.f0.accept(this,methodName) + " + " +  n.f2.accept(this,methodName);
+    public TypeSymbol visit(PlusExpression n, String methodName) throws Exception {
+        expect(n.f0, TypeSymbol.INT, methodName, "error: bad operand types for binary operator: +");
+        expect(n.f2, TypeSymbol.INT, methodName, "error: bad operand types for binary operator: +");
+        return TypeSymbol.INT;
     }
 
     /**
@@ -1181,8 +3106,10 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> "-"
     * f2 -> PrimaryExpression()
     */
-    public String visit(MinusExpression n, String argu) throws Exception {
-        return n.f0.accept(this,argu) + " - " +  n.f2.accept(this,argu);
+    public TypeSymbol visit(MinusExpression n, String methodName) throws Exception {
+        expect(n.f0, TypeSymbol.INT, methodName, "error: bad operand types for binary operator: -");
+        expect(n.f2, TypeSymbol.INT, methodName, "error: bad operand types for binary operator: -");
+        return TypeSymbol.INT;
     }
 
     /**
@@ -1190,8 +3117,10 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> "*"
     * f2 -> PrimaryExpression()
     */
-    public String visit(TimesExpression n, String argu) throws Exception {
-        return n.f0.accept(this,argu) + " * " +  n.f2.accept(this,argu);
+    public TypeSymbol visit(TimesExpression n, String methodName) throws Exception {
+        expect(n.f0, TypeSymbol.INT, methodName, "error: bad operand types for binary operator: *");
+        expect(n.f2, TypeSymbol.INT, methodName, "error: bad operand types for binary operator: *");
+        return TypeSymbol.INT;
     }
 
     /**
@@ -1200,60 +3129,15 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f2 -> PrimaryExpression()
     * f3 -> "]"
     */
-    public String visit(ArrayLookup n, String methodName) throws Exception {
-
-        String arraysName = n.f0.accept(this, methodName);                                           /* Get array's name */
-        String arraysType = st.get(currSymbolTable).lookup(arraysName, methodName, currClass);      /* Get array's type */
-
-        if (typeCheck){
-          
-            /* Check if variable "arraysName" exists in the Symbol Table */
-            if (arraysType == null){
-                System.err.println("error: in array lookup: array " + arraysName + " wasn't found");
-                System.exit(1);
-            }
-
-            /* Identifier or "arraysName" must be type "int[]" */
-            if (arraysType.equals("int[]") == false){
-                System.err.println("error: in array lookup: array required");
-                System.exit(1);
-            }
-    
-            /* The arraysIndex must be type "int" */
-            String arraysIndex = n.f2.accept(this, methodName);
-    
-            if (arraysIndex.contains("MessageSend")){       /* If it's a method call => only keep the return type (remove "MessageSend") */
-
-                arraysIndex = arraysIndex.replace("MessageSend", "");
+    public TypeSymbol visit(ArrayLookup n, String methodName) throws Exception {
 
-                if (arraysIndex.equals("int") == false){
-                    System.err.println("error: in array lookup: index must be type int");
-                    System.exit(1);
-                }
-
-            }else{      /* If it's not a method call */ 
-                
-                if (this.isNumeric(arraysIndex) == false){      /* It's a variable => check the variable's type */
-
-                    /* Get variable's "arraysIndexType" type */
-                    String arraysIndexType = st.get(currSymbolTable).lookup(arraysIndex, methodName, currClass);
+        /* The array must be type "int[]" */
+        expect(n.f0, TypeSymbol.INT_ARRAY, methodName, "error: in array lookup: array required");
 
-                    /* Check if variable "arraysIndex" exists in the Symbol Table */
-                    if (arraysIndexType == null){
-                        System.err.println("error: in array lookup: cannot find symbol " + arraysIndex);
-                        System.exit(1);
-                    }
-
-                    /* Check if variable "arraysIndexType" is type "int" */
-                    if (arraysIndexType.equals("int") == false){
-                        System.err.println("error: in array lookup: index must be type int");
-                        System.exit(1);
-                    }
-                }
-            }
-        }
+        /* The arraysIndex must be type "int" */
+        expect(n.f2, TypeSymbol.INT, methodName, "error: in array lookup: index must be type int");
 
-        return "ArrayLookup " + n.f0.accept(this,methodName) + "[" +  n.f2.accept(this,methodName) + "]";
+        return TypeSymbol.INT;
     }
 
     /**
@@ -1261,28 +3145,12 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> "."
     * f2 -> "length"
     */
-    public String visit(ArrayLength n, String methodName) throws Exception {
-
-        String arraysName = n.f0.accept(this,methodName);
-        
-        if (typeCheck){
-            
-            String arraysType = st.get(currSymbolTable).lookup(arraysName, methodName, currClass);      /* Get array's type */
-
-            /* Check if variable "arraysName" exists in the Symbol Table (has been declared) */
-            if (arraysType == null){
-                System.err.println("error in ArrayLength: array " + arraysName + " wasn't found");
-                System.exit(1);
-            }
+    public TypeSymbol visit(ArrayLength n, String methodName) throws Exception {
 
-            /* Identifier or "arraysName" must be type "int[]" */
-            if (arraysType.equals("int[]") == false){
-                System.err.println("error: in ArrayLength: array required");
-                System.exit(1);
-            }
-        }
+        /* The array must be type "int[]" */
+        expect(n.f0, TypeSymbol.INT_ARRAY, methodName, "error: in ArrayLength: array required");
 
-        return arraysName + ".length"; 
+        return TypeSymbol.INT;
     }
 
     /**
@@ -1293,153 +3161,68 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f4 -> ( ExpressionList() )?
     * f5 -> ")"
     */
-    public String visit(MessageSend n, String methodName) throws Exception {
+    public TypeSymbol visit(MessageSend n, String methodName) throws Exception {
 
         /* methodName = the name of the method that this MessageSend is inside */
-        String idMethod = n.f2.accept(this, methodName);
-
-        if (typeCheck){
-
-            String prExpr = n.f0.accept(this,methodName);
-            int stIndex = currSymbolTable;                                 /* the symbol table index to search */
-            String className;
-            String funType;
-            
-            if (prExpr.contains("AllocationExpression")){           /* e.g new A() */
-
-                className = prExpr.replace("AllocationExpression", "");      /* Remove the keyword "AllocationExpression" from the string to keep only the class name */
-
-            }else if (prExpr.contains("(MessageSend ")){                    /* e.g. (p_node.GetLeft()).GetKey(); messageSend.messagesend */
-
-                prExpr = prExpr.replace("(MessageSend ", "");
-                className = prExpr.replace(")", "");
-                    
-            }else{
-
-                if (prExpr.equals("this"))
-                    className = st.get(stIndex).getClassName(currClass);
-                else
-                    className = st.get(stIndex).lookup(prExpr, methodName, currClass);       /* If prExpr is a variable => variable's type is a className e.g. Tree r => Tree is a varType and a className */
-
-                if (className == null){
-                    System.err.println("error: cannot find symbol: " + prExpr + " inside the function called: " + methodName);
-                    System.exit(1);
-                }
-
-            }
-            
-            stIndex = this.findSTindex(className);    // varType == className
+        String idMethod = name(n.f2);
 
-            /* Check if className exists in the Symbol Table */
-            if (stIndex == -1){
-                System.err.println("error: cannot find class: " + className);
-                System.exit(1);
-            }
+        /* The type of the object is the class that has the method e.g. Tree r => Tree is a varType and a className */
+        TypeSymbol receiver = n.f0.accept(this, methodName);
 
-            /* Get the function's type */
-            funType = st.get(stIndex).findFunName(idMethod);
+        /* Check if className exists in the Symbol Table */
+        Function function = null;
+        if (receiver.classEntry == null){
+            if (receiver != TypeSymbol.ERROR)
+                diagnostics.error(n.f0, "error: cannot find class: " + receiver);
+        }
+        else{
+            /* Find the function called "idMethod" in this class or in a parent class */
+            function = receiver.classEntry.resolveFunction(id(n.f2));
 
             /* Check if there is a function called "idMethod" in this class or in a parent class */
-            if (funType == null){
-                System.err.println("erorr: cannot find method: " + idMethod + " in class: " + className);
-                System.exit(1);
-            }
-            
-            int numOfArgs; 
-            String expressionList = n.f4.present() ? n.f4.accept(this, methodName) : "";      /* Get the function arguments */
-            
-            if (expressionList.isEmpty())            /* Get the number of arguments in the function call */
-                numOfArgs = 0;
-            else{
-                String[] args = expressionList.split(", |,");
-                numOfArgs = args.length;
-
-                ArrayList<String> argsTypes = new ArrayList<String>();
-    
-                for (int x = 0; x < args.length ; x++){         /* Get the type of each argument in an array called argsTypes */
-
-                    if (args[x].endsWith(" "))
-                        args[x] = args[x].substring(0,args[x].length() - 1);
-                    
-                    if (this.isNumeric(args[x]) || args[x].contains("+") || (args[x].contains("-")) || (args[x].contains("*"))){
-                        argsTypes.add("int");
-                        continue;
-                    }
+            if (function == null)
+                diagnostics.error(n.f2, "erorr: cannot find method: " + idMethod + " in class: " + receiver);
+        }
 
-                    if (args[x].equals("true") || args[x].equals("false")){
-                        argsTypes.add("boolean");
-                        continue;
-                    }
-                    
-                    if (args[x].contains("MessageSend ")){
-                        args[x] = args[x].replace("MessageSend ", "");
-                        argsTypes.add(args[x]);
-                        continue;
-                    }
-                    
-                    if (args[x].contains("this")){
-                        argsTypes.add(st.get(currSymbolTable).getClassName(currClass));
-                        continue;
-                    }
+        /* Unknown method => only check the arguments themselves */
+        if (function == null){
+            if (n.f4.present())
+                n.f4.node.accept(this, methodName);
+            return TypeSymbol.ERROR;
+        }
 
-                    /* If argument is a variable get argumen't type */
-                    String arguType = st.get(currSymbolTable).lookup(args[x], methodName, currClass);
-                    
-                    /* Check if argument exists in the Symbol Table (has been declared) */
-                    if (arguType == null){
-                        System.err.println("error: cannot find symbol: " + args[x] + " in method: " + methodName);
-                        System.exit(1);
-                    }
+        int numOfArgs = 0;                      /* Get the number of arguments in the function call */
 
-                    argsTypes.add(arguType);
-                }
+        if (n.f4.present()){
 
-                this.checkFunArguments(idMethod, argsTypes, stIndex);
-            }
+            ExpressionList args = (ExpressionList) n.f4.node;
+            numOfArgs = 1 + args.f1.f0.size();
 
-            /* Check if we have the same number of arguments in function definition and function call */
-            if (numOfArgs != st.get(stIndex).getNumOfArguments(idMethod)){
-                System.err.println("erorr: actual and formal argument lists differ in length required: " + numOfArgs + " found: " + st.get(stIndex).getNumOfArguments(idMethod));
-                System.exit(1);
-            }
-            
-            return "MessageSend " + funType;
+            checkArgument(function, 0, args.f0, methodName);
+            for (int x = 0; x < args.f1.f0.size(); x++)
+                checkArgument(function, x + 1, ((ExpressionTerm) args.f1.f0.elementAt(x)).f1, methodName);
         }
-        return " ";
-    }
 
-
-    /**
-     * f0 -> Expression()
-    * f1 -> ExpressionTail()
-    */
-    public String visit(ExpressionList n, String argu) throws Exception {
-
-        String ret = n.f0.accept(this, argu);
-        return ret + " " + n.f1.accept(this, argu);
+        /* Check if we have the same number of arguments in function definition and function call */
+        if (numOfArgs != function.numOfArgs){
+            diagnostics.error(n.f2, "erorr: actual and formal argument lists differ in length required: " + numOfArgs + " found: " + function.numOfArgs);
+        }
+        
+        return function.funType;
     }
 
-    /**
-     * f0 -> ( ExpressionTerm() )*
-    */     
-    public String visit(ExpressionTail n, String argu) throws Exception {
+    /* Check if the argument "arg" with index "x" of a call matches with the argument of the function "function" */
+    void checkArgument(Function function, int x, Expression arg, String methodName) throws Exception {
 
-        String ret = "";
-        NodeListOptional varDecls = n.f0;
+        TypeSymbol arguType = arg.accept(this, methodName);
 
-        for (int i = 0; i < varDecls.size(); ++i) {
-            ExpressionTerm varDecl = (ExpressionTerm) varDecls.elementAt(i);
-            ret = ret + ", " + varDecl.f1.accept(this,argu);
-        }
-        return ret;
-    }
+        if (x >= function.argTypes.size())          /* Too many arguments => the number of arguments is checked after */
+            return;
 
-    /**
-     * f0 -> ","
-    * f1 -> Expression()
-    */
-    public String visit(ExpressionTerm n, String argu) throws Exception {
-        return n.f1.accept(this,argu);
+        /* The argument must have the same type or be a class that extends it */
+        if (!arguType.isAssignableTo(function.argTypes.get(x))){
+            diagnostics.error(arg, "error: argument types do not match: " + arguType + " and " + function.argTypes.get(x) + " in function: " + function.funName);
+        }
     }
 
     /**
@@ -1453,43 +3236,55 @@ class MyVisitor extends GJDepthFirst<String,String>{
     *       | NotExpression()
     *       | BracketExpression()
     */
-    public String visit(PrimaryExpression n, String argu) throws Exception {
+    public TypeSymbol visit(PrimaryExpression n, String argu) throws Exception {
         return n.f0.accept(this, argu);
     }
 
     /**
      * f0 -> <INTEGER_LITERAL>
     */
-    public String visit(IntegerLiteral n, String argu) throws Exception {
-        return n.f0.toString();    
+    public TypeSymbol visit(IntegerLiteral n, String argu) throws Exception {
+
+        /* The token is an INTEGER_LITERAL => only check that the number fits in an int */
+        if (!fitsInInt(n.f0.image())){
+            diagnostics.error(n.f0, "error: integer number too large: " + n.f0.image());
+        }
+        return TypeSymbol.INT;
+    }
+
+    /* Check if the digits of an INTEGER_LITERAL fit in an int => literals don't have leading zeros, so longer means larger */
+    boolean fitsInInt(String digits){
+
+        String max = "2147483647";      /* Integer.MAX_VALUE */
+        return digits.length() < max.length() || (digits.length() == max.length() && digits.compareTo(max) <= 0);
     }
 
     /**
      * f0 -> "true"
     */
-    public String visit(TrueLiteral n, String argu) throws Exception {
-        return "true";    
+    public TypeSymbol visit(TrueLiteral n, String argu) throws Exception {
+        return TypeSymbol.BOOLEAN;
     }
 
     /**
      * f0 -> "false"
     */
-    public String visit(FalseLiteral n, String argu) throws Exception {
-        return "false";    
+    public TypeSymbol visit(FalseLiteral n, String argu) throws Exception {
+        return TypeSymbol.BOOLEAN;
     }
    
     /**
     * f0 -> <IDENTIFIER>
     */ 
-    public String visit(Identifier n, String argu) {
-        return n.f0.toString();   
+    public TypeSymbol visit(Identifier n, String methodName) throws Exception {
+        return lookup(n, methodName);         /* An identifier in an expression is a variable => return the variable's type */
     }
 
     /**
     * f0 -> "this"
     */ 
-    public String visit(ThisExpression n, String argu) throws Exception {
-        return "this";
+    public TypeSymbol visit(ThisExpression n, String argu) throws Exception {
+        return currClassType;
     }
 
     /**
@@ -1499,45 +3294,11 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f3 -> Expression()
     * f4 -> "]"
     */
-    public String visit(ArrayAllocationExpression n, String methodName) throws Exception {
-
-        String expr = n.f3.accept(this,methodName);
-
-        if (typeCheck){
-
-            /* expr must be type int (it's an index) */
-            if (isNumeric(expr))                            /* If index is a number */
-                return "ArrayAllocationExpression " + expr;
-
-            else if (expr.contains("+") || expr.contains("-") || expr.contains("*")){    /* If it's a PrimaryExpression => it's already checked */
-                return "ArrayAllocationExpression " + expr;
-            
-            }else if (expr.contains("MessageSend ")){    /* If it's a PrimaryExpression => it's already checked */
-                expr = expr.replace("MessageSend ", "");
-
-                if (expr.equals("int") == false){
-                    System.err.println("error: in array assignment expression must be type int");
-                    System.exit(1);
-                }
-
-            }else{                                       /* If expr is a variable => check variable's type */
+    public TypeSymbol visit(ArrayAllocationExpression n, String methodName) throws Exception {
 
-                String exprType = st.get(currSymbolTable).lookup(expr, methodName, currClass);
-                
-                /* Check if variable called "expr" exists in the Symbol Table */
-                if (exprType == null){   
-                    System.err.println("error: in array assignment: cannot find symbol: " + expr);
-                    System.exit(1);
-                }
-                
-                /* Ckeck if variable called "exprType" isn't type "int" */
-                if (exprType.equals("int") == false){       
-                    System.err.println("error: in array assignment expression must be type int");
-                    System.exit(1);
-                }
-            }
-        }
-        return "ArrayAllocationExpression " + "expr";
+        /* expr must be type int (it's the size of the array) */
+        expect(n.f3, TypeSymbol.INT, methodName, "error: in array allocation: size must be type int");
+        return TypeSymbol.INT_ARRAY;
     }
 
     /**
@@ -1546,30 +3307,26 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f2 -> "("
     * f3 -> ")"
     */
-    public String visit(AllocationExpression n, String argu) throws Exception {
-
-        String className = n.f1.accept(this, argu);
-
-        if (typeCheck){
+    public TypeSymbol visit(AllocationExpression n, String argu) throws Exception {
 
-            int stIndex = this.findSTindex(className);
+        TypeSymbol classType = classIndex.getType(id(n.f1));
             
-            /* Check if Identifier (className) exists (has been declared) */
-            if (stIndex == -1){
-                System.err.println("error: cannot find class: " + className);
-                System.exit(1);
-            }
+        /* Check if Identifier (className) exists (has been declared) */
+        if (classType.classEntry == null){
+            diagnostics.error(n.f1, "error: cannot find class: " + classType);
+            return TypeSymbol.ERROR;
         }
 
-        return "AllocationExpression" + className;
+        return classType;
     }
 
     /**
      * f0 -> "!"
     * f1 -> PrimaryExpression()
     */
-    public String visit(NotExpression n, String argu) throws Exception {
-        return n.f1.accept(this,argu);
+    public TypeSymbol visit(NotExpression n, String methodName) throws Exception {
+        expect(n.f1, TypeSymbol.BOOLEAN, methodName, "error: bad operand type for unary operator: !");
+        return TypeSymbol.BOOLEAN;
     }
 
     /**
@@ -1577,7 +3334,7 @@ class MyVisitor extends GJDepthFirst<String,String>{
     * f1 -> Expression()
     * f2 -> ")"
     */
-    public String visit(BracketExpression n, String argu) throws Exception {
-        return "(" + n.f1.accept(this,argu) + ")";
+    public TypeSymbol visit(BracketExpression n, String argu) throws Exception {
+        return n.f1.accept(this,argu);
     }
-}
\ No newline at end of file
+}
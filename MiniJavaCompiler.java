@@ -0,0 +1,18 @@
+import java.io.StringReader;
+
+/**
+ * The compiler as a library => parses and typechecks a MiniJava program and returns the errors and the offsets instead of printing them
+ *
+ * Every call has its own parser, Symbol Tables and visitors, so it can be called from many threads at the same time.
+ */
+public final class MiniJavaCompiler {
+
+    private MiniJavaCompiler(){}
+
+    /* Check the program "source" => every syntax error is reported, like "java Main" does */
+    public static CheckResult check(CharSequence source){
+        MiniJavaParser parser = new MiniJavaParser(new StringReader(source.toString()));
+        parser.recover = true;
+        return Main.check(parser, new NameTable(), "<source>", null);
+    }
+}
@@ -4,6 +4,64 @@ import java.util.Vector;
 
 
 public class MiniJavaParser implements MiniJavaParserConstants {
+   // A lean tree: the fixed tokens that don't begin a node are shared
+   // NodeTokens without a position, so only the first token of every
+   // node has its own NodeToken
+   public boolean lean = false;
+
+   // Panic-mode error recovery: a statement, a declaration or a class with
+   // a syntax error becomes an ErrorNode of its tokens, and the parser goes
+   // on after them => every syntax error is kept in syntaxErrors
+   public boolean recover = false;
+   public java.util.List<ParseException> syntaxErrors = new java.util.ArrayList<ParseException>();
+
+   // Where the tokens of an error end: a statement at its ";", at the "}"
+   // of its block or before "return", a member at its ";" or at its last
+   // "}", and a class before the next "class"
+   static final int STATEMENT_ERROR = 0, MEMBER_ERROR = 1, CLASS_ERROR = 2;
+
+   // Skip the tokens of the node that threw "e", which began after the
+   // token "before" => rethrow "e" if the parser doesn't recover
+   ErrorNode skipError(ParseException e, Token before, int level) throws ParseException {
+      if ( !recover )
+         throw e;
+      syntaxErrors.add(e);
+
+      // The tokens that were read since "before", with the braces they opened
+      NodeListOptional tokens = new NodeListOptional();
+      int depth = 0;
+      for ( Token t = before; t != token; ) {
+         t = t.next;
+         tokens.addNode(JTBToolkit.makeNodeToken(t));
+         if ( t.kind == LBRACE )
+            depth++;
+         else if ( t.kind == RBRACE )
+            depth--;
+      }
+
+      // "public" and "class" only begin a member or a class, so they end
+      // an error even inside braces that were never closed; a block that
+      // is followed by "else" is the then part of a broken "if"
+      while ( true ) {
+         Token t = getToken(1);
+         if ( t.kind == EOF || t.kind == CLASS )
+            break;
+         if ( level != CLASS_ERROR && (t.kind == PUBLIC || (depth == 0 && (t.kind == RBRACE || (level == STATEMENT_ERROR && t.kind == RETURN)))) )
+            break;
+         getNextToken();
+         tokens.addNode(JTBToolkit.makeNodeToken(t));
+         if ( level == CLASS_ERROR )
+            continue;
+         if ( t.kind == LBRACE )
+            depth++;
+         else if ( t.kind == RBRACE && --depth == 0 && getToken(1).kind != ELSE )
+            break;
+         else if ( t.kind == SEMICOLON && depth == 0 )
+            break;
+      }
+      tokens.nodes.trimToSize();
+      return new ErrorNode(tokens);
+   }
 
   final public Goal Goal() throws ParseException {
    MainClass n0;
@@ -11,19 +69,28 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    TypeDeclaration n2;
    NodeToken n3;
    Token n4;
-    n0 = MainClass();
+   Token before;
+    before = token;
+    try {
+      n0 = MainClass();
+    } catch (ParseException e) {
+        n1.addNode(skipError(e, before, CLASS_ERROR));
+        n0 = null;
+    }
     label_1:
     while (true) {
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case CLASS:
+      if (getToken(1).kind == CLASS || recover && getToken(1).kind != EOF) {
         ;
-        break;
-      default:
-        jj_la1[0] = jj_gen;
+      } else {
         break label_1;
       }
-      n2 = TypeDeclaration();
+      before = token;
+      try {
+        n2 = TypeDeclaration();
         n1.addNode(n2);
+      } catch (ParseException e) {
+        n1.addNode(skipError(e, before, CLASS_ERROR));
+      }
     }
      n1.nodes.trimToSize();
     n4 = jj_consume_token(0);
@@ -68,32 +135,33 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Token n31;
    NodeToken n32;
    Token n33;
+   Token before;
     n1 = jj_consume_token(CLASS);
                 n0 = JTBToolkit.makeNodeToken(n1);
     n2 = Identifier();
     n4 = jj_consume_token(LBRACE);
-            n3 = JTBToolkit.makeNodeToken(n4);
+            n3 = JTBToolkit.makeFixedToken(n4, lean);
     n6 = jj_consume_token(PUBLIC);
-                 n5 = JTBToolkit.makeNodeToken(n6);
+                 n5 = JTBToolkit.makeFixedToken(n6, lean);
     n8 = jj_consume_token(STATIC);
-                 n7 = JTBToolkit.makeNodeToken(n8);
+                 n7 = JTBToolkit.makeFixedToken(n8, lean);
     n10 = jj_consume_token(VOID);
-                n9 = JTBToolkit.makeNodeToken(n10);
+                n9 = JTBToolkit.makeFixedToken(n10, lean);
     n12 = jj_consume_token(MAIN);
-                n11 = JTBToolkit.makeNodeToken(n12);
+                n11 = JTBToolkit.makeFixedToken(n12, lean);
     n14 = jj_consume_token(LPAREN);
-             n13 = JTBToolkit.makeNodeToken(n14);
+             n13 = JTBToolkit.makeFixedToken(n14, lean);
     n16 = jj_consume_token(STRING);
-                  n15 = JTBToolkit.makeNodeToken(n16);
+                  n15 = JTBToolkit.makeFixedToken(n16, lean);
     n18 = jj_consume_token(LSQPAREN);
-             n17 = JTBToolkit.makeNodeToken(n18);
+             n17 = JTBToolkit.makeFixedToken(n18, lean);
     n20 = jj_consume_token(RSQPAREN);
-             n19 = JTBToolkit.makeNodeToken(n20);
+             n19 = JTBToolkit.makeFixedToken(n20, lean);
     n21 = Identifier();
     n23 = jj_consume_token(RPAREN);
-             n22 = JTBToolkit.makeNodeToken(n23);
+             n22 = JTBToolkit.makeFixedToken(n23, lean);
     n25 = jj_consume_token(LBRACE);
-             n24 = JTBToolkit.makeNodeToken(n25);
+             n24 = JTBToolkit.makeFixedToken(n25, lean);
     label_2:
     while (true) {
       if (jj_2_1(2)) {
@@ -101,8 +169,13 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       } else {
         break label_2;
       }
-      n27 = VarDeclaration();
+      before = token;
+      try {
+        n27 = VarDeclaration();
         n26.addNode(n27);
+      } catch (ParseException e) {
+        n26.addNode(skipError(e, before, STATEMENT_ERROR));
+      }
     }
      n26.nodes.trimToSize();
     label_3:
@@ -116,17 +189,22 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[1] = jj_gen;
+        jj_la1[0] = jj_gen;
         break label_3;
       }
-      n29 = Statement();
+      before = token;
+      try {
+        n29 = Statement();
         n28.addNode(n29);
+      } catch (ParseException e) {
+        n28.addNode(skipError(e, before, STATEMENT_ERROR));
+      }
     }
      n28.nodes.trimToSize();
     n31 = jj_consume_token(RBRACE);
-             n30 = JTBToolkit.makeNodeToken(n31);
+             n30 = JTBToolkit.makeFixedToken(n31, lean);
     n33 = jj_consume_token(RBRACE);
-             n32 = JTBToolkit.makeNodeToken(n33);
+             n32 = JTBToolkit.makeFixedToken(n33, lean);
      {if (true) return new MainClass(n0,n2,n3,n5,n7,n9,n11,n13,n15,n17,n19,n21,n22,n24,n26,n28,n30,n32);}
     throw new Error("Missing return statement in function");
   }
@@ -145,7 +223,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n2, 1);
         break;
       default:
-        jj_la1[2] = jj_gen;
+        jj_la1[1] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
@@ -166,11 +244,12 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    MethodDeclaration n8;
    NodeToken n9;
    Token n10;
+   Token before;
     n1 = jj_consume_token(CLASS);
                 n0 = JTBToolkit.makeNodeToken(n1);
     n2 = Identifier();
     n4 = jj_consume_token(LBRACE);
-            n3 = JTBToolkit.makeNodeToken(n4);
+            n3 = JTBToolkit.makeFixedToken(n4, lean);
     label_4:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
@@ -180,11 +259,16 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[3] = jj_gen;
+        jj_la1[2] = jj_gen;
         break label_4;
       }
-      n6 = VarDeclaration();
+      before = token;
+      try {
+        n6 = VarDeclaration();
         n5.addNode(n6);
+      } catch (ParseException e) {
+        n5.addNode(skipError(e, before, MEMBER_ERROR));
+      }
     }
      n5.nodes.trimToSize();
     label_5:
@@ -194,15 +278,20 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[4] = jj_gen;
+        jj_la1[3] = jj_gen;
         break label_5;
       }
-      n8 = MethodDeclaration();
+      before = token;
+      try {
+        n8 = MethodDeclaration();
         n7.addNode(n8);
+      } catch (ParseException e) {
+        n7.addNode(skipError(e, before, MEMBER_ERROR));
+      }
     }
      n7.nodes.trimToSize();
     n10 = jj_consume_token(RBRACE);
-             n9 = JTBToolkit.makeNodeToken(n10);
+             n9 = JTBToolkit.makeFixedToken(n10, lean);
      {if (true) return new ClassDeclaration(n0,n2,n3,n5,n7,n9);}
     throw new Error("Missing return statement in function");
   }
@@ -222,14 +311,15 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    MethodDeclaration n11;
    NodeToken n12;
    Token n13;
+   Token before;
     n1 = jj_consume_token(CLASS);
                 n0 = JTBToolkit.makeNodeToken(n1);
     n2 = Identifier();
     n4 = jj_consume_token(EXTENDS);
-                  n3 = JTBToolkit.makeNodeToken(n4);
+                  n3 = JTBToolkit.makeFixedToken(n4, lean);
     n5 = Identifier();
     n7 = jj_consume_token(LBRACE);
-            n6 = JTBToolkit.makeNodeToken(n7);
+            n6 = JTBToolkit.makeFixedToken(n7, lean);
     label_6:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
@@ -239,11 +329,16 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[5] = jj_gen;
+        jj_la1[4] = jj_gen;
         break label_6;
       }
-      n9 = VarDeclaration();
+      before = token;
+      try {
+        n9 = VarDeclaration();
         n8.addNode(n9);
+      } catch (ParseException e) {
+        n8.addNode(skipError(e, before, MEMBER_ERROR));
+      }
     }
      n8.nodes.trimToSize();
     label_7:
@@ -253,15 +348,20 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[6] = jj_gen;
+        jj_la1[5] = jj_gen;
         break label_7;
       }
-      n11 = MethodDeclaration();
+      before = token;
+      try {
+        n11 = MethodDeclaration();
         n10.addNode(n11);
+      } catch (ParseException e) {
+        n10.addNode(skipError(e, before, MEMBER_ERROR));
+      }
     }
      n10.nodes.trimToSize();
     n13 = jj_consume_token(RBRACE);
-             n12 = JTBToolkit.makeNodeToken(n13);
+             n12 = JTBToolkit.makeFixedToken(n13, lean);
      {if (true) return new ClassExtendsDeclaration(n0,n2,n3,n5,n6,n8,n10,n12);}
     throw new Error("Missing return statement in function");
   }
@@ -274,7 +374,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n0 = Type();
     n1 = Identifier();
     n3 = jj_consume_token(SEMICOLON);
-            n2 = JTBToolkit.makeNodeToken(n3);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
      {if (true) return new VarDeclaration(n0,n1,n2);}
     throw new Error("Missing return statement in function");
   }
@@ -303,12 +403,13 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Token n20;
    NodeToken n21;
    Token n22;
+   Token before;
     n1 = jj_consume_token(PUBLIC);
                  n0 = JTBToolkit.makeNodeToken(n1);
     n2 = Type();
     n3 = Identifier();
     n5 = jj_consume_token(LPAREN);
-            n4 = JTBToolkit.makeNodeToken(n5);
+            n4 = JTBToolkit.makeFixedToken(n5, lean);
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case BOOLEAN:
     case INTEGER:
@@ -317,13 +418,13 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n6.addNode(n7);
       break;
     default:
-      jj_la1[7] = jj_gen;
+      jj_la1[6] = jj_gen;
       ;
     }
     n9 = jj_consume_token(RPAREN);
-            n8 = JTBToolkit.makeNodeToken(n9);
+            n8 = JTBToolkit.makeFixedToken(n9, lean);
     n11 = jj_consume_token(LBRACE);
-             n10 = JTBToolkit.makeNodeToken(n11);
+             n10 = JTBToolkit.makeFixedToken(n11, lean);
     label_8:
     while (true) {
       if (jj_2_3(2)) {
@@ -331,8 +432,13 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       } else {
         break label_8;
       }
-      n13 = VarDeclaration();
+      before = token;
+      try {
+        n13 = VarDeclaration();
         n12.addNode(n13);
+      } catch (ParseException e) {
+        n12.addNode(skipError(e, before, STATEMENT_ERROR));
+      }
     }
      n12.nodes.trimToSize();
     label_9:
@@ -346,20 +452,25 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[8] = jj_gen;
+        jj_la1[7] = jj_gen;
         break label_9;
       }
-      n15 = Statement();
+      before = token;
+      try {
+        n15 = Statement();
         n14.addNode(n15);
+      } catch (ParseException e) {
+        n14.addNode(skipError(e, before, STATEMENT_ERROR));
+      }
     }
      n14.nodes.trimToSize();
     n17 = jj_consume_token(RETURN);
-                  n16 = JTBToolkit.makeNodeToken(n17);
+                  n16 = JTBToolkit.makeFixedToken(n17, lean);
     n18 = Expression();
     n20 = jj_consume_token(SEMICOLON);
-             n19 = JTBToolkit.makeNodeToken(n20);
+             n19 = JTBToolkit.makeFixedToken(n20, lean);
     n22 = jj_consume_token(RBRACE);
-             n21 = JTBToolkit.makeNodeToken(n22);
+             n21 = JTBToolkit.makeFixedToken(n22, lean);
      {if (true) return new MethodDeclaration(n0,n2,n3,n4,n6,n8,n10,n12,n14,n16,n18,n19,n21);}
     throw new Error("Missing return statement in function");
   }
@@ -392,7 +503,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[9] = jj_gen;
+        jj_la1[8] = jj_gen;
         break label_10;
       }
       n1 = FormalParameterTerm();
@@ -438,7 +549,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n4, 3);
         break;
       default:
-        jj_la1[10] = jj_gen;
+        jj_la1[9] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
@@ -457,9 +568,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n1 = jj_consume_token(INTEGER);
               n0 = JTBToolkit.makeNodeToken(n1);
     n3 = jj_consume_token(LSQPAREN);
-            n2 = JTBToolkit.makeNodeToken(n3);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
     n5 = jj_consume_token(RSQPAREN);
-            n4 = JTBToolkit.makeNodeToken(n5);
+            n4 = JTBToolkit.makeFixedToken(n5, lean);
      {if (true) return new ArrayType(n0,n2,n4);}
     throw new Error("Missing return statement in function");
   }
@@ -496,7 +607,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n1, 0);
       break;
     default:
-      jj_la1[11] = jj_gen;
+      jj_la1[10] = jj_gen;
       if (jj_2_5(2)) {
         n2 = AssignmentStatement();
         n0 = new NodeChoice(n2, 1);
@@ -518,7 +629,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n6, 5);
           break;
         default:
-          jj_la1[12] = jj_gen;
+          jj_la1[11] = jj_gen;
           jj_consume_token(-1);
           throw new ParseException();
         }
@@ -535,6 +646,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Statement n3;
    NodeToken n4;
    Token n5;
+   Token before;
     n1 = jj_consume_token(LBRACE);
             n0 = JTBToolkit.makeNodeToken(n1);
     label_11:
@@ -548,15 +660,20 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[13] = jj_gen;
+        jj_la1[12] = jj_gen;
         break label_11;
       }
-      n3 = Statement();
+      before = token;
+      try {
+        n3 = Statement();
         n2.addNode(n3);
+      } catch (ParseException e) {
+        n2.addNode(skipError(e, before, STATEMENT_ERROR));
+      }
     }
      n2.nodes.trimToSize();
     n5 = jj_consume_token(RBRACE);
-            n4 = JTBToolkit.makeNodeToken(n5);
+            n4 = JTBToolkit.makeFixedToken(n5, lean);
      {if (true) return new Block(n0,n2,n4);}
     throw new Error("Missing return statement in function");
   }
@@ -570,10 +687,10 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Token n5;
     n0 = Identifier();
     n2 = jj_consume_token(ASSIGN);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = Expression();
     n5 = jj_consume_token(SEMICOLON);
-            n4 = JTBToolkit.makeNodeToken(n5);
+            n4 = JTBToolkit.makeFixedToken(n5, lean);
      {if (true) return new AssignmentStatement(n0,n1,n3,n4);}
     throw new Error("Missing return statement in function");
   }
@@ -592,15 +709,15 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Token n10;
     n0 = Identifier();
     n2 = jj_consume_token(LSQPAREN);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = Expression();
     n5 = jj_consume_token(RSQPAREN);
-            n4 = JTBToolkit.makeNodeToken(n5);
+            n4 = JTBToolkit.makeFixedToken(n5, lean);
     n7 = jj_consume_token(ASSIGN);
-            n6 = JTBToolkit.makeNodeToken(n7);
+            n6 = JTBToolkit.makeFixedToken(n7, lean);
     n8 = Expression();
     n10 = jj_consume_token(SEMICOLON);
-             n9 = JTBToolkit.makeNodeToken(n10);
+             n9 = JTBToolkit.makeFixedToken(n10, lean);
      {if (true) return new ArrayAssignmentStatement(n0,n1,n3,n4,n6,n8,n9);}
     throw new Error("Missing return statement in function");
   }
@@ -620,13 +737,13 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n1 = jj_consume_token(IF);
              n0 = JTBToolkit.makeNodeToken(n1);
     n3 = jj_consume_token(LPAREN);
-            n2 = JTBToolkit.makeNodeToken(n3);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
     n4 = Expression();
     n6 = jj_consume_token(RPAREN);
-            n5 = JTBToolkit.makeNodeToken(n6);
+            n5 = JTBToolkit.makeFixedToken(n6, lean);
     n7 = Statement();
     n9 = jj_consume_token(ELSE);
-               n8 = JTBToolkit.makeNodeToken(n9);
+               n8 = JTBToolkit.makeFixedToken(n9, lean);
     n10 = Statement();
      {if (true) return new IfStatement(n0,n2,n4,n5,n7,n8,n10);}
     throw new Error("Missing return statement in function");
@@ -644,10 +761,10 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n1 = jj_consume_token(WHILE);
                 n0 = JTBToolkit.makeNodeToken(n1);
     n3 = jj_consume_token(LPAREN);
-            n2 = JTBToolkit.makeNodeToken(n3);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
     n4 = Expression();
     n6 = jj_consume_token(RPAREN);
-            n5 = JTBToolkit.makeNodeToken(n6);
+            n5 = JTBToolkit.makeFixedToken(n6, lean);
     n7 = Statement();
      {if (true) return new WhileStatement(n0,n2,n4,n5,n7);}
     throw new Error("Missing return statement in function");
@@ -666,69 +783,115 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n1 = jj_consume_token(PRINT);
                              n0 = JTBToolkit.makeNodeToken(n1);
     n3 = jj_consume_token(LPAREN);
-            n2 = JTBToolkit.makeNodeToken(n3);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
     n4 = Expression();
     n6 = jj_consume_token(RPAREN);
-            n5 = JTBToolkit.makeNodeToken(n6);
+            n5 = JTBToolkit.makeFixedToken(n6, lean);
     n8 = jj_consume_token(SEMICOLON);
-            n7 = JTBToolkit.makeNodeToken(n8);
+            n7 = JTBToolkit.makeFixedToken(n8, lean);
      {if (true) return new PrintStatement(n0,n2,n4,n5,n7);}
     throw new Error("Missing return statement in function");
   }
 
   final public Expression Expression() throws ParseException {
    NodeChoice n0;
-   AndExpression n1;
-   CompareExpression n2;
-   PlusExpression n3;
-   MinusExpression n4;
-   TimesExpression n5;
-   ArrayLookup n6;
-   ArrayLength n7;
-   MessageSend n8;
-   PrimaryExpression n9;
-    if (jj_2_7(2147483647)) {
-      n1 = AndExpression();
-        n0 = new NodeChoice(n1, 0);
-    } else if (jj_2_8(2147483647)) {
-      n2 = CompareExpression();
-        n0 = new NodeChoice(n2, 1);
-    } else if (jj_2_9(2147483647)) {
-      n3 = PlusExpression();
-        n0 = new NodeChoice(n3, 2);
-    } else if (jj_2_10(2147483647)) {
-      n4 = MinusExpression();
-        n0 = new NodeChoice(n4, 3);
-    } else if (jj_2_11(2147483647)) {
-      n5 = TimesExpression();
-        n0 = new NodeChoice(n5, 4);
-    } else if (jj_2_12(2147483647)) {
-      n6 = ArrayLookup();
-        n0 = new NodeChoice(n6, 5);
-    } else if (jj_2_13(2147483647)) {
-      n7 = ArrayLength();
-        n0 = new NodeChoice(n7, 6);
-    } else if (jj_2_14(2147483647)) {
-      n8 = MessageSend();
-        n0 = new NodeChoice(n8, 7);
-    } else {
+   PrimaryExpression n1;
+   NodeToken n2;
+   Token n3;
+   PrimaryExpression n4;
+   NodeToken n5;
+   Token n6;
+   NodeToken n7;
+   Token n8;
+   Identifier n9;
+   NodeToken n10;
+   Token n11;
+   NodeOptional n12 = new NodeOptional();
+   ExpressionList n13;
+   NodeToken n14;
+   Token n15;
+    n1 = PrimaryExpression();
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case AND:
+      n3 = jj_consume_token(AND);
+             n2 = JTBToolkit.makeFixedToken(n3, lean);
+      n4 = PrimaryExpression();
+        n0 = new NodeChoice(new AndExpression(n1,n2,n4), 0);
+      break;
+    case LT:
+      n3 = jj_consume_token(LT);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
+      n4 = PrimaryExpression();
+        n0 = new NodeChoice(new CompareExpression(n1,n2,n4), 1);
+      break;
+    case PLUS:
+      n3 = jj_consume_token(PLUS);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
+      n4 = PrimaryExpression();
+        n0 = new NodeChoice(new PlusExpression(n1,n2,n4), 2);
+      break;
+    case MINUS:
+      n3 = jj_consume_token(MINUS);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
+      n4 = PrimaryExpression();
+        n0 = new NodeChoice(new MinusExpression(n1,n2,n4), 3);
+      break;
+    case 48:
+      n3 = jj_consume_token(48);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
+      n4 = PrimaryExpression();
+        n0 = new NodeChoice(new TimesExpression(n1,n2,n4), 4);
+      break;
+    case LSQPAREN:
+      n3 = jj_consume_token(LSQPAREN);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
+      n4 = PrimaryExpression();
+      n6 = jj_consume_token(RSQPAREN);
+            n5 = JTBToolkit.makeFixedToken(n6, lean);
+        n0 = new NodeChoice(new ArrayLookup(n1,n2,n4,n5), 5);
+      break;
+    case DOT:
+      n3 = jj_consume_token(DOT);
+            n2 = JTBToolkit.makeFixedToken(n3, lean);
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case LPAREN:
-      case NOT:
-      case FALSE:
-      case NEW:
-      case THIS:
-      case TRUE:
-      case INTEGER_LITERAL:
+      case LENGTH:
+        n8 = jj_consume_token(LENGTH);
+                     n7 = JTBToolkit.makeFixedToken(n8, lean);
+          n0 = new NodeChoice(new ArrayLength(n1,n2,n7), 6);
+        break;
       case IDENTIFIER:
-        n9 = PrimaryExpression();
-        n0 = new NodeChoice(n9, 8);
+        n9 = Identifier();
+        n11 = jj_consume_token(LPAREN);
+                n10 = JTBToolkit.makeFixedToken(n11, lean);
+        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+        case LPAREN:
+        case NOT:
+        case FALSE:
+        case NEW:
+        case THIS:
+        case TRUE:
+        case INTEGER_LITERAL:
+        case IDENTIFIER:
+          n13 = ExpressionList();
+            n12.addNode(n13);
+          break;
+        default:
+          jj_la1[13] = jj_gen;
+          ;
+        }
+        n15 = jj_consume_token(RPAREN);
+                n14 = JTBToolkit.makeFixedToken(n15, lean);
+          n0 = new NodeChoice(new MessageSend(n1,n2,n9,n10,n12,n14), 7);
         break;
       default:
         jj_la1[14] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
+      break;
+    default:
+      jj_la1[15] = jj_gen;
+        n0 = new NodeChoice(n1, 8);
     }
      {if (true) return new Expression(n0);}
     throw new Error("Missing return statement in function");
@@ -741,7 +904,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    PrimaryExpression n3;
     n0 = PrimaryExpression();
     n2 = jj_consume_token(AND);
-             n1 = JTBToolkit.makeNodeToken(n2);
+             n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = PrimaryExpression();
      {if (true) return new AndExpression(n0,n1,n3);}
     throw new Error("Missing return statement in function");
@@ -754,7 +917,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    PrimaryExpression n3;
     n0 = PrimaryExpression();
     n2 = jj_consume_token(LT);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = PrimaryExpression();
      {if (true) return new CompareExpression(n0,n1,n3);}
     throw new Error("Missing return statement in function");
@@ -767,7 +930,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    PrimaryExpression n3;
     n0 = PrimaryExpression();
     n2 = jj_consume_token(PLUS);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = PrimaryExpression();
      {if (true) return new PlusExpression(n0,n1,n3);}
     throw new Error("Missing return statement in function");
@@ -780,7 +943,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    PrimaryExpression n3;
     n0 = PrimaryExpression();
     n2 = jj_consume_token(MINUS);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = PrimaryExpression();
      {if (true) return new MinusExpression(n0,n1,n3);}
     throw new Error("Missing return statement in function");
@@ -793,7 +956,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    PrimaryExpression n3;
     n0 = PrimaryExpression();
     n2 = jj_consume_token(48);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = PrimaryExpression();
      {if (true) return new TimesExpression(n0,n1,n3);}
     throw new Error("Missing return statement in function");
@@ -808,10 +971,10 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Token n5;
     n0 = PrimaryExpression();
     n2 = jj_consume_token(LSQPAREN);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = PrimaryExpression();
     n5 = jj_consume_token(RSQPAREN);
-            n4 = JTBToolkit.makeNodeToken(n5);
+            n4 = JTBToolkit.makeFixedToken(n5, lean);
      {if (true) return new ArrayLookup(n0,n1,n3,n4);}
     throw new Error("Missing return statement in function");
   }
@@ -824,9 +987,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Token n4;
     n0 = PrimaryExpression();
     n2 = jj_consume_token(DOT);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n4 = jj_consume_token(LENGTH);
-                 n3 = JTBToolkit.makeNodeToken(n4);
+                 n3 = JTBToolkit.makeFixedToken(n4, lean);
      {if (true) return new ArrayLength(n0,n1,n3);}
     throw new Error("Missing return statement in function");
   }
@@ -844,10 +1007,10 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    Token n9;
     n0 = PrimaryExpression();
     n2 = jj_consume_token(DOT);
-            n1 = JTBToolkit.makeNodeToken(n2);
+            n1 = JTBToolkit.makeFixedToken(n2, lean);
     n3 = Identifier();
     n5 = jj_consume_token(LPAREN);
-            n4 = JTBToolkit.makeNodeToken(n5);
+            n4 = JTBToolkit.makeFixedToken(n5, lean);
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case LPAREN:
     case NOT:
@@ -861,11 +1024,11 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n6.addNode(n7);
       break;
     default:
-      jj_la1[15] = jj_gen;
+      jj_la1[16] = jj_gen;
       ;
     }
     n9 = jj_consume_token(RPAREN);
-            n8 = JTBToolkit.makeNodeToken(n9);
+            n8 = JTBToolkit.makeFixedToken(n9, lean);
      {if (true) return new MessageSend(n0,n1,n3,n4,n6,n8);}
     throw new Error("Missing return statement in function");
   }
@@ -889,7 +1052,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[16] = jj_gen;
+        jj_la1[17] = jj_gen;
         break label_12;
       }
       n1 = ExpressionTerm();
@@ -944,8 +1107,8 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n5, 4);
       break;
     default:
-      jj_la1[17] = jj_gen;
-      if (jj_2_15(3)) {
+      jj_la1[18] = jj_gen;
+      if (jj_2_7(3)) {
         n6 = ArrayAllocationExpression();
         n0 = new NodeChoice(n6, 5);
       } else {
@@ -963,7 +1126,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n9, 8);
           break;
         default:
-          jj_la1[18] = jj_gen;
+          jj_la1[19] = jj_gen;
           jj_consume_token(-1);
           throw new ParseException();
         }
@@ -1031,12 +1194,12 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n1 = jj_consume_token(NEW);
               n0 = JTBToolkit.makeNodeToken(n1);
     n3 = jj_consume_token(INTEGER);
-              n2 = JTBToolkit.makeNodeToken(n3);
+              n2 = JTBToolkit.makeFixedToken(n3, lean);
     n5 = jj_consume_token(LSQPAREN);
-            n4 = JTBToolkit.makeNodeToken(n5);
+            n4 = JTBToolkit.makeFixedToken(n5, lean);
     n6 = Expression();
     n8 = jj_consume_token(RSQPAREN);
-            n7 = JTBToolkit.makeNodeToken(n8);
+            n7 = JTBToolkit.makeFixedToken(n8, lean);
      {if (true) return new ArrayAllocationExpression(n0,n2,n4,n6,n7);}
     throw new Error("Missing return statement in function");
   }
@@ -1053,9 +1216,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
               n0 = JTBToolkit.makeNodeToken(n1);
     n2 = Identifier();
     n4 = jj_consume_token(LPAREN);
-            n3 = JTBToolkit.makeNodeToken(n4);
+            n3 = JTBToolkit.makeFixedToken(n4, lean);
     n6 = jj_consume_token(RPAREN);
-            n5 = JTBToolkit.makeNodeToken(n6);
+            n5 = JTBToolkit.makeFixedToken(n6, lean);
      {if (true) return new AllocationExpression(n0,n2,n3,n5);}
     throw new Error("Missing return statement in function");
   }
@@ -1081,7 +1244,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
             n0 = JTBToolkit.makeNodeToken(n1);
     n2 = Expression();
     n4 = jj_consume_token(RPAREN);
-            n3 = JTBToolkit.makeNodeToken(n4);
+            n3 = JTBToolkit.makeFixedToken(n4, lean);
      {if (true) return new BracketExpression(n0,n2,n3);}
     throw new Error("Missing return statement in function");
   }
@@ -1135,62 +1298,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     finally { jj_save(6, xla); }
   }
 
-  private boolean jj_2_8(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_8(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(7, xla); }
-  }
-
-  private boolean jj_2_9(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_9(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(8, xla); }
-  }
-
-  private boolean jj_2_10(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_10(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(9, xla); }
-  }
-
-  private boolean jj_2_11(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_11(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(10, xla); }
-  }
-
-  private boolean jj_2_12(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_12(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(11, xla); }
-  }
-
-  private boolean jj_2_13(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_13(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(12, xla); }
-  }
-
-  private boolean jj_2_14(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_14(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(13, xla); }
-  }
-
-  private boolean jj_2_15(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_15(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(14, xla); }
-  }
-
   private boolean jj_3_1() {
     if (jj_3R_13()) return true;
     return false;
@@ -1204,9 +1311,12 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   }
 
   private boolean jj_3R_52() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(AND)) return true;
-    if (jj_3R_18()) return true;
+    if (jj_3R_19()) return true;
+    if (jj_scan_token(LPAREN)) return true;
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3R_60()) jj_scanpos = xsp;
+    if (jj_scan_token(RPAREN)) return true;
     return false;
   }
 
@@ -1228,31 +1338,13 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3R_57() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3_14() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3_13() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_scan_token(LENGTH)) return true;
-    return false;
-  }
-
   private boolean jj_3R_51() {
-    if (jj_3R_18()) return true;
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_scan_token(LENGTH)) {
+    jj_scanpos = xsp;
+    if (jj_3R_52()) return true;
+    }
     return false;
   }
 
@@ -1266,19 +1358,14 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3_12() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    return false;
-  }
-
   private boolean jj_3R_31() {
     if (jj_3R_41()) return true;
     return false;
   }
 
   private boolean jj_3R_50() {
-    if (jj_3R_59()) return true;
+    if (jj_scan_token(DOT)) return true;
+    if (jj_3R_51()) return true;
     return false;
   }
 
@@ -1292,19 +1379,15 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3_11() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(48)) return true;
-    return false;
-  }
-
   private boolean jj_3R_63() {
     if (jj_3R_64()) return true;
     return false;
   }
 
   private boolean jj_3R_49() {
-    if (jj_3R_58()) return true;
+    if (jj_scan_token(LSQPAREN)) return true;
+    if (jj_3R_18()) return true;
+    if (jj_scan_token(RSQPAREN)) return true;
     return false;
   }
 
@@ -1319,12 +1402,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3_10() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(MINUS)) return true;
-    return false;
-  }
-
   private boolean jj_3R_62() {
     Token xsp;
     while (true) {
@@ -1335,12 +1412,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   }
 
   private boolean jj_3R_48() {
-    if (jj_3R_57()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_56() {
-    if (jj_3R_18()) return true;
     if (jj_scan_token(48)) return true;
     if (jj_3R_18()) return true;
     return false;
@@ -1367,25 +1438,15 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3_9() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(PLUS)) return true;
-    return false;
-  }
-
   private boolean jj_3R_47() {
-    if (jj_3R_56()) return true;
-    return false;
-  }
-
-  private boolean jj_3_8() {
+    if (jj_scan_token(MINUS)) return true;
     if (jj_3R_18()) return true;
-    if (jj_scan_token(LT)) return true;
     return false;
   }
 
   private boolean jj_3R_46() {
-    if (jj_3R_55()) return true;
+    if (jj_scan_token(PLUS)) return true;
+    if (jj_3R_18()) return true;
     return false;
   }
 
@@ -1394,14 +1455,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3_7() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(AND)) return true;
-    return false;
-  }
-
   private boolean jj_3R_45() {
-    if (jj_3R_54()) return true;
+    if (jj_scan_token(LT)) return true;
+    if (jj_3R_18()) return true;
     return false;
   }
 
@@ -1430,7 +1486,8 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   }
 
   private boolean jj_3R_44() {
-    if (jj_3R_53()) return true;
+    if (jj_scan_token(AND)) return true;
+    if (jj_3R_18()) return true;
     return false;
   }
 
@@ -1441,23 +1498,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3R_55() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(MINUS)) return true;
-    if (jj_3R_18()) return true;
-    return false;
-  }
-
   private boolean jj_3R_43() {
-    if (jj_3R_52()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_42() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_3R_43()) {
-    jj_scanpos = xsp;
     if (jj_3R_44()) {
     jj_scanpos = xsp;
     if (jj_3R_45()) {
@@ -1470,11 +1513,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     jj_scanpos = xsp;
     if (jj_3R_49()) {
     jj_scanpos = xsp;
-    if (jj_3R_50()) {
-    jj_scanpos = xsp;
-    if (jj_3R_51()) return true;
-    }
-    }
+    if (jj_3R_50()) return true;
     }
     }
     }
@@ -1484,6 +1523,14 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
+  private boolean jj_3R_42() {
+    if (jj_3R_18()) return true;
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3R_43()) jj_scanpos = xsp;
+    return false;
+  }
+
   private boolean jj_3R_29() {
     if (jj_3R_39()) return true;
     return false;
@@ -1510,26 +1557,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3R_59() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LPAREN)) return true;
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_60()) jj_scanpos = xsp;
-    if (jj_scan_token(RPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_54() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(PLUS)) return true;
-    if (jj_3R_18()) return true;
-    return false;
-  }
-
-  private boolean jj_3_15() {
+  private boolean jj_3_7() {
     if (jj_3R_20()) return true;
     return false;
   }
@@ -1584,13 +1612,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3R_53() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(LT)) return true;
-    if (jj_3R_18()) return true;
-    return false;
-  }
-
   private boolean jj_3R_40() {
     if (jj_scan_token(BOOLEAN)) return true;
     return false;
@@ -1609,7 +1630,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     jj_scanpos = xsp;
     if (jj_3R_26()) {
     jj_scanpos = xsp;
-    if (jj_3_15()) {
+    if (jj_3_7()) {
     jj_scanpos = xsp;
     if (jj_3R_27()) {
     jj_scanpos = xsp;
@@ -1638,13 +1659,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     return false;
   }
 
-  private boolean jj_3R_58() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_scan_token(LENGTH)) return true;
-    return false;
-  }
-
   /** Generated Token Manager. */
   public MiniJavaParserTokenManager token_source;
   JavaCharStream jj_input_stream;
@@ -1656,7 +1670,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   private Token jj_scanpos, jj_lastpos;
   private int jj_la;
   private int jj_gen;
-  final private int[] jj_la1 = new int[19];
+  final private int[] jj_la1 = new int[20];
   static private int[] jj_la1_0;
   static private int[] jj_la1_1;
   static {
@@ -1664,12 +1678,12 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       jj_la1_init_1();
    }
    private static void jj_la1_init_0() {
-      jj_la1_0 = new int[] {0x1000000,0x60002000,0x1000000,0x80800000,0x0,0x80800000,0x0,0x80800000,0x60002000,0x0,0x80800000,0x2000,0x60000000,0x60002000,0x10400200,0x10400200,0x0,0x10000000,0x400200,};
+      jj_la1_0 = new int[] {0x60002000,0x1000000,0x80800000,0x0,0x80800000,0x0,0x80800000,0x60002000,0x0,0x80800000,0x2000,0x60000000,0x60002000,0x10400200,0x0,0x3d0800,0x10400200,0x0,0x10000000,0x400200,};
    }
    private static void jj_la1_init_1() {
-      jj_la1_1 = new int[] {0x0,0x1200,0x0,0x1000,0x8,0x1000,0x8,0x1000,0x1200,0x8000,0x1000,0x0,0x200,0x1200,0x1984,0x1984,0x8000,0x1980,0x4,};
+      jj_la1_1 = new int[] {0x1200,0x0,0x1000,0x8,0x1000,0x8,0x1000,0x1200,0x8000,0x1000,0x0,0x200,0x1200,0x1984,0x1001,0x10000,0x1984,0x8000,0x1980,0x4,};
    }
-  final private JJCalls[] jj_2_rtns = new JJCalls[15];
+  final private JJCalls[] jj_2_rtns = new JJCalls[7];
   private boolean jj_rescan = false;
   private int jj_gc = 0;
 
@@ -1684,7 +1698,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 20; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1699,7 +1713,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 20; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1710,7 +1724,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 20; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1721,7 +1735,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 20; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1731,7 +1745,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 20; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1741,7 +1755,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 19; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 20; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1858,7 +1872,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       la1tokens[jj_kind] = true;
       jj_kind = -1;
     }
-    for (int i = 0; i < 19; i++) {
+    for (int i = 0; i < 20; i++) {
       if (jj_la1[i] == jj_gen) {
         for (int j = 0; j < 32; j++) {
           if ((jj_la1_0[i] & (1<<j)) != 0) {
@@ -1897,7 +1911,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
 
   private void jj_rescan_token() {
     jj_rescan = true;
-    for (int i = 0; i < 15; i++) {
+    for (int i = 0; i < 7; i++) {
     try {
       JJCalls p = jj_2_rtns[i];
       do {
@@ -1911,14 +1925,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
             case 4: jj_3_5(); break;
             case 5: jj_3_6(); break;
             case 6: jj_3_7(); break;
-            case 7: jj_3_8(); break;
-            case 8: jj_3_9(); break;
-            case 9: jj_3_10(); break;
-            case 10: jj_3_11(); break;
-            case 11: jj_3_12(); break;
-            case 12: jj_3_13(); break;
-            case 13: jj_3_14(); break;
-            case 14: jj_3_15(); break;
           }
         }
         p = p.next;
@@ -1945,9 +1951,3 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   }
 
 }
-
-class JTBToolkit {
-   static NodeToken makeNodeToken(Token t) {
-      return new NodeToken(t.image.intern(), t.kind, t.beginLine, t.beginColumn, t.endLine, t.endColumn);
-   }
-}
@@ -0,0 +1,16 @@
+import syntaxtree.NodeToken;
+
+/* The NodeToken of a NameToken => MyVisitor finds the symbols of the identifier by its id */
+class NameNodeToken extends NodeToken{
+
+    private static final long serialVersionUID = 1L;
+
+    NameTable names;
+    int id;
+
+    NameNodeToken(NameToken token){
+        super(token.image, token.kind, token.beginLine, token.beginColumn, token.endLine, token.endColumn);
+        this.names = token.names;
+        this.id = token.id;
+    }
+}
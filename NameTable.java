@@ -0,0 +1,88 @@
+import java.util.Arrays;
+
+/*
+ * The names of the identifiers of one file => every name gets an int id the first time it's seen, so the Symbol Tables are keyed by ids instead of Strings
+ *
+ * DfaTokenManager finds the id of an identifier from its chars in the file, and only the first one of every name is copied into a String.
+ */
+class NameTable{
+
+    String[] names = new String[64];
+    int[] hashes = new int[64];                 /* The String.hashCode of every name => a name is only compared with the names that have its hash */
+    int size = 0;
+    int[] slots = new int[128];                 /* Open addressing => the id + 1 of the name at every slot, 0 for an empty slot */
+
+    /* The id of the name with the chars from "start" up to "end" of "source" */
+    int intern(ArrayCharStream source, int start, int end){
+
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + source.charAt(i);
+
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask;; slot = (slot + 1) & mask){
+            int id = slots[slot] - 1;
+            if (id < 0)
+                return add(source.image(start, end), hash, slot);
+            if (hashes[id] == hash && matches(names[id], source, start, end))
+                return id;
+        }
+    }
+
+    /* The id of the name "name" => for the identifiers of the generated lexer, which are Strings */
+    int intern(String name){
+
+        int hash = name.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask;; slot = (slot + 1) & mask){
+            int id = slots[slot] - 1;
+            if (id < 0)
+                return add(name, hash, slot);
+            if (hashes[id] == hash && names[id].equals(name))
+                return id;
+        }
+    }
+
+    /* The name with the id "id" */
+    String name(int id){
+        return names[id];
+    }
+
+    static int spread(int hash){
+        return hash ^ (hash >>> 16);
+    }
+
+    static boolean matches(String name, ArrayCharStream source, int start, int end){
+        if (name.length() != end - start)
+            return false;
+        for (int i = 0; i < name.length(); i++)
+            if (name.charAt(i) != source.charAt(start + i))
+                return false;
+        return true;
+    }
+
+    /* Add "name" at the empty slot "slot" => the slots are doubled when they're half full */
+    int add(String name, int hash, int slot){
+
+        if (size == names.length){
+            names = Arrays.copyOf(names, 2 * size);
+            hashes = Arrays.copyOf(hashes, 2 * size);
+        }
+        int id = size++;
+        names[id] = name;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+
+        if (2 * size > slots.length){
+            slots = new int[2 * slots.length];
+            int mask = slots.length - 1;
+            for (int i = 0; i < size; i++){
+                int at = spread(hashes[i]) & mask;
+                while (slots[at] != 0)
+                    at = (at + 1) & mask;
+                slots[at] = i + 1;
+            }
+        }
+        return id;
+    }
+}
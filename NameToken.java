@@ -0,0 +1,14 @@
+/* An identifier of DfaTokenManager => its image is the String of its name in the NameTable, so there is one String for every name */
+class NameToken extends Token{
+
+    private static final long serialVersionUID = 1L;
+
+    NameTable names;
+    int id;
+
+    NameToken(int kind, NameTable names, int id){
+        super(kind, names.name(id));
+        this.names = names;
+        this.id = id;
+    }
+}
@@ -0,0 +1,23 @@
+import syntaxtree.NodeToken;
+
+/* The NodeToken of a SourceToken => the visitors that ask for its image make it, so an integer that is never printed is never copied out of the file */
+class SourceNodeToken extends NodeToken{
+
+    private static final long serialVersionUID = 1L;
+
+    ArrayCharStream source;
+    int start;                                  /* An integer is on one line => its chars end at start + (endColumn - beginColumn) */
+
+    SourceNodeToken(SourceToken token){
+        super(null, token.kind, token.beginLine, token.beginColumn, token.endLine, token.endColumn);
+        this.source = token.source;
+        this.start = token.start;
+    }
+
+    @Override
+    public String image(){
+        if (tokenImage == null)
+            tokenImage = source.image(start, start + (endColumn - beginColumn) + 1);
+        return tokenImage;
+    }
+}
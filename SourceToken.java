@@ -0,0 +1,23 @@
+/* An integer or a comment of DfaTokenManager => only the offsets of its chars in the file, so its image is made the first time it's asked for, and the parser never asks */
+class SourceToken extends Token{
+
+    private static final long serialVersionUID = 1L;
+
+    ArrayCharStream source;
+    int start;
+    int end;
+
+    SourceToken(int kind, ArrayCharStream source, int start, int end){
+        super(kind, null);
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public String toString(){
+        if (image == null)
+            image = source.image(start, end);
+        return image;
+    }
+}
@@ -0,0 +1,96 @@
+import syntaxtree.*;
+
+import java.util.*;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+/* A small benchmark harness => runs an operation a few times to warm up the JIT and then reports the time of the measured rounds */
+class Bench {
+
+    static Object sink;                     /* Keeps the result of every operation alive so the JIT can't remove the work */
+
+    interface Op {
+        Object run() throws Exception;
+    }
+
+    /* A benchmark with an input that is prepared before every round => only "run" is timed */
+    interface Stage<T> {
+        T setup() throws Exception;
+        Object run(T input) throws Exception;
+    }
+
+    static long run(String name, Op op) throws Exception {
+        return run(name, 5, 10, op);
+    }
+
+    static long run(String name, int warmups, int rounds, final Op op) throws Exception {
+        return run(name, warmups, rounds, new Stage<Object>(){
+            public Object setup(){ return null; }
+            public Object run(Object input) throws Exception { return op.run(); }
+        });
+    }
+
+    /* Return the median time of the measured rounds in nanoseconds */
+    static <T> long run(String name, int warmups, int rounds, Stage<T> stage) throws Exception {
+
+        for (int i = 0; i < warmups; i++)
+            sink = stage.run(stage.setup());
+
+        long[] times = new long[rounds];
+        for (int i = 0; i < rounds; i++){
+            T input = stage.setup();
+            long start = System.nanoTime();
+            sink = stage.run(input);
+            times[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(times);
+        long total = 0;
+        for (long time : times)
+            total += time;
+
+        System.out.printf("%-50s mean %10.3f ms   min %10.3f ms   median %10.3f ms%n", name, total / 1e6 / rounds, times[0] / 1e6, times[rounds / 2] / 1e6);
+        return times[rounds / 2];
+    }
+
+    /* Read the programs of the directory "dir" that should type check => the files called "*-error.java" are skipped */
+    static List<String> corpus(String dir) throws Exception {
+
+        List<String> sources = new ArrayList<String>();
+        File[] files = new File(dir).listFiles();
+        Arrays.sort(files);
+
+        for (File file : files)
+            if (file.getName().endsWith(".java") && !file.getName().endsWith("-error.java"))
+                sources.add(new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset()));
+
+        return sources;
+    }
+
+    /* Parse a MiniJava program that is kept in a String */
+    static Goal parse(String source) throws ParseException {
+        return new MiniJavaParser(new StringReader(source)).Goal();
+    }
+
+    /* Run the first pass of MyVisitor on "root" => Return the visitor that holds the Symbol Tables */
+    static MyVisitor collect(Goal root) throws Exception {
+        MyVisitor dataCollector = new MyVisitor(false, new ArrayList<SymbolTable>(), new ClassIndex(), new Diagnostics());
+        root.accept(dataCollector, null);
+        return dataCollector;
+    }
+
+    /* Run the second pass of MyVisitor on "root" with the Symbol Tables of "dataCollector" */
+    static MyVisitor typeCheck(Goal root, MyVisitor dataCollector) throws Exception {
+        MyVisitor typeCheck = new MyVisitor(true, dataCollector.st, dataCollector.classIndex, dataCollector.diagnostics);
+        root.accept(typeCheck, null);
+        return typeCheck;
+    }
+
+    /* Run both passes of MyVisitor on "root" => Return the Symbol Tables */
+    static List<SymbolTable> check(Goal root) throws Exception {
+        return typeCheck(root, collect(root)).st;
+    }
+}
@@ -0,0 +1,36 @@
+import syntaxtree.*;
+
+/* Type checks a program with thousands of classes => every method allocates and calls another class, so the class of every call site must be found */
+class ClassIndexBench {
+
+    public static void main(String[] args) throws Exception {
+
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 5000;       /* Number of classes in the program */
+
+        final Goal root = Bench.parse(classes(classes));
+
+        Bench.run("collect + typecheck (" + classes + " classes)", 2, 5, () -> Bench.check(root));
+    }
+
+    /* Create a program with "classes" classes => class K<i> allocates an object of class K<i-1> and calls its method */
+    static String classes(int classes){
+
+        StringBuilder src = new StringBuilder();
+
+        src.append("class Main {\n    public static void main(String[] a){\n        System.out.println(new K" + (classes - 1) + "().get());\n    }\n}\n");
+
+        for (int c = 0; c < classes; c++){
+            src.append("class K" + c + " {\n");
+            src.append("    public int get(){\n");
+            if (c == 0)
+                src.append("        return 0;\n");
+            else{
+                src.append("        K" + (c - 1) + " other;\n");
+                src.append("        other = new K" + (c - 1) + "();\n");
+                src.append("        return other.get();\n");
+            }
+            src.append("    }\n}\n");
+        }
+        return src.toString();
+    }
+}
@@ -0,0 +1,78 @@
+import syntaxtree.*;
+
+/* The JTB syntax tree against its FlatTree on a large generated program => the heap that every tree keeps per line of source, and the time of a full walk */
+class FlatTreeBench {
+
+    public static void main(String[] args) throws Exception {
+
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 500;       /* Number of classes in the generated program */
+
+        String source = new ProgramGenerator(1, classes, 1, 10, 10, 3, 0).generate();
+        byte[] content = source.getBytes();
+        int lines = 0;
+        for (int i = 0; i < source.length(); i++)
+            if (source.charAt(i) == '\n')
+                lines++;
+        source = null;
+
+        /* The heap of each tree is what is still used after it's made, with the NameTable made before */
+        NameTable names = new NameTable();
+        long before = used();
+        Goal root = new MiniJavaParser(DfaTokenManager.of(AsciiCharStream.scan(content), names)).Goal();
+        long jtb = used() - before;
+        int nodes = CompileStats.countNodes(root);
+
+        before = used();
+        FlatTree tree = FlatTree.of(root, names);
+        long flat = used() - before;
+
+        System.out.printf("%d classes, %d lines%n", classes, lines);
+        System.out.printf("%-12s %10d nodes %12.1f KB %10.1f bytes/line%n", "JTB", nodes, jtb / 1024.0, (double) jtb / lines);
+        System.out.printf("%-12s %10d nodes %12.1f KB %10.1f bytes/line (%d tokens, arrays %.1f KB)%n", "FlatTree", tree.size, flat / 1024.0, (double) flat / lines, tree.tokens, tree.bytes() / 1024.0);
+
+        final Goal jtbRoot = root;
+        final FlatTree flatTree = tree;
+
+        Bench.run("JTB DepthFirstVisitor", 5, 10, () -> {
+            TraversalBench.TokenCounter counter = new TraversalBench.TokenCounter();
+            jtbRoot.accept(counter);
+            return counter.tokens;
+        });
+
+        Bench.run("FlatTree walk with a FlatVisitor", 5, 10, () -> {
+            TokenCounter counter = new TokenCounter();
+            flatTree.walk(counter);
+            return counter.tokens;
+        });
+
+        /* A pass that needs no order of exits => the rows are already in pre-order */
+        Bench.run("FlatTree scan of the rows", 5, 10, () -> {
+            int tokens = 0;
+            for (int node = 0; node < flatTree.size; node++)
+                if (flatTree.kind(node) == FlatTree.TOKEN)
+                    tokens++;
+            return tokens;
+        });
+    }
+
+    static long used(){
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /* Counts the tokens of the tree, like TraversalBench.TokenCounter */
+    static class TokenCounter implements FlatVisitor {
+
+        int tokens = 0;
+
+        public boolean enter(FlatTree tree, int node){
+            if (tree.kind(node) == FlatTree.TOKEN)
+                tokens++;
+            return true;
+        }
+
+        public void exit(FlatTree tree, int node){}
+    }
+}
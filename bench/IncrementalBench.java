@@ -0,0 +1,89 @@
+import syntaxtree.*;
+
+import java.util.*;
+
+/* Single keystrokes in a file of about 10k lines => IncrementalParser against parsing the whole file again after every edit */
+class IncrementalBench {
+
+    public static void main(String[] args) throws Exception {
+
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 26;        /* Number of classes in the generated program => 26 is about 10k lines */
+
+        String source = new ProgramGenerator(1, classes, 1, 10, 10, 3, 0).generate();
+        int lines = 0;
+        for (int i = 0; i < source.length(); i++)
+            if (source.charAt(i) == '\n')
+                lines++;
+        System.out.printf("%d classes, %d lines%n", classes, lines);
+
+        final int[] statements = sites(source, "        x = p;\n", 8);              /* The "x" of the first statement of every method */
+        int[] types = sites(source, "    int f", 8);                           /* The "f" of the first field of every class */
+        final int[] fields = Arrays.copyOf(types, types.length - 1);           /* EOF is on the line of the last "}" => the last class is parsed with the file */
+
+        final IncrementalParser parser = new IncrementalParser(source, new NameTable());
+        parser.parse();
+
+        /* The first sites are checked against parsing the whole file => that is most of the time of the benchmark */
+        int checked = Math.min(fields.length, 10);
+        check(new Keystrokes(parser, Arrays.copyOf(statements, checked), 1, "y"));
+        check(new Keystrokes(parser, Arrays.copyOf(statements, checked), 6, "\n"));
+        check(new Keystrokes(parser, Arrays.copyOf(fields, checked), 1, "g"));
+
+        /* An even number of edits => every insert is deleted again before the next benchmark */
+        Bench.run("identifier keystroke (" + statements.length + " sites)", 2000, 1000, new Keystrokes(parser, statements, 1, "y"));
+        Bench.run("newline keystroke (" + statements.length + " sites)", 2000, 1000, new Keystrokes(parser, statements, 6, "\n"));
+        Bench.run("field keystroke (" + fields.length + " sites)", 200, 100, new Keystrokes(parser, fields, 1, "g"));
+        Bench.run("whole file", 5, 10, () -> parser.parse());
+    }
+
+    /* The offset of every "pattern" in "source", plus "skip" */
+    static int[] sites(String source, String pattern, int skip){
+        List<Integer> found = new ArrayList<Integer>();
+        for (int i = source.indexOf(pattern); i >= 0; i = source.indexOf(pattern, i + 1))
+            found.add(i + skip);
+        int[] sites = new int[found.size()];
+        for (int i = 0; i < sites.length; i++)
+            sites[i] = found.get(i);
+        return sites;
+    }
+
+    /* Types "text" at every site and deletes it again => the text is the same after every pair of edits, so the sites stay where they are */
+    static class Keystrokes implements Bench.Op {
+
+        IncrementalParser parser;
+        int[] sites;
+        int skip;
+        String text;
+        int edits = 0;
+
+        Keystrokes(IncrementalParser parser, int[] sites, int skip, String text){
+            this.parser = parser;
+            this.sites = sites;
+            this.skip = skip;
+            this.text = text;
+        }
+
+        public Object run() throws Exception {
+            int site = sites[(edits / 2) % sites.length] + skip;
+            Goal goal = ((edits++ & 1) == 0) ? parser.edit(site, 0, text) : parser.edit(site, text.length(), "");
+            if (parser.reparsed == IncrementalParser.FILE)
+                throw new IllegalStateException("An edit at " + site + " parsed the whole file");
+            return goal;
+        }
+    }
+
+    /* After every edit the tree must be the one of the whole text => their FlatTrees are compared row by row */
+    static void check(Keystrokes keystrokes) throws Exception {
+
+        IncrementalParser parser = keystrokes.parser;
+        for (int i = 0; i < 2 * keystrokes.sites.length; i++){
+            FlatTree incremental = FlatTree.of((Goal) keystrokes.run(), parser.names);
+            String current = new String(parser.text, 0, parser.length);
+            FlatTree whole = FlatTree.of(new IncrementalParser(current, parser.names).parse(), parser.names);
+
+            if (!Arrays.equals(whole.kind, incremental.kind) || !Arrays.equals(whole.end, incremental.end) || !Arrays.equals(whole.tokenStart, incremental.tokenStart)
+                    || !Arrays.equals(whole.tokenKind, incremental.tokenKind) || !Arrays.equals(whole.image, incremental.image) || !Arrays.equals(whole.line, incremental.line) || !Arrays.equals(whole.column, incremental.column))
+                throw new IllegalStateException("IncrementalParser made another tree than Goal() after typing " + keystrokes.text.replace("\n", "\\n") + " at " + keystrokes.sites[i / 2]);
+        }
+    }
+}
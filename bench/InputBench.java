@@ -0,0 +1,73 @@
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/* Lexes a large generated file => JavaCharStream over a FileInputStream against ArrayCharStream.read, and the lexer alone over AsciiCharStream and the decoded chars */
+class InputBench {
+
+    static final String[] INPUTS = {"stream", "read", "ascii", "chars"};
+
+    /* Every input runs in its own JVM => the calls of the lexer to its JavaCharStream only ever see one class, like in the compiler */
+    public static void main(String[] args) throws Exception {
+
+        if (args.length > 1){
+            run(Paths.get(args[0]), args[1]);
+            return;
+        }
+
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;        /* Number of classes in the generated file */
+
+        Path file = Files.createTempFile("minijava-input", ".java");
+        try{
+            Files.write(file, new ProgramGenerator(1, classes, 1, 10, 10, 3, 0).generate().getBytes());
+            System.out.printf("%d classes, %.1f MB%n", classes, Files.size(file) / 1e6);
+
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            for (String input : INPUTS)
+                new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "InputBench", file.toString(), input).inheritIO().start().waitFor();
+        }
+        finally{
+            Files.delete(file);
+        }
+    }
+
+    /* Lex "file" through the stream "input" => the stream is made before every round for ascii and chars, so only the lexer is timed */
+    static void run(final Path file, String input) throws Exception {
+
+        final byte[] content = Files.readAllBytes(file);
+        long time;
+
+        if (input.equals("stream"))
+            time = Bench.run("lex stream", 3, 10, () -> {
+                try (InputStream in = new FileInputStream(file.toFile())){
+                    return lex(new JavaCharStream(in));
+                }
+            });
+        else if (input.equals("read"))
+            time = Bench.run("lex read", 3, 10, () -> lex(ArrayCharStream.read(file)));
+        else if (input.equals("ascii"))
+            time = Bench.run("lex ascii", 3, 10, new Bench.Stage<JavaCharStream>(){
+                public JavaCharStream setup(){ return AsciiCharStream.scan(content); }
+                public Object run(JavaCharStream stream){ return lex(stream); }
+            });
+        else
+            time = Bench.run("lex chars", 3, 10, new Bench.Stage<JavaCharStream>(){
+                public JavaCharStream setup(){ return ArrayCharStream.chars(content); }
+                public Object run(JavaCharStream stream){ return lex(stream); }
+            });
+
+        System.out.printf("    %.1f MB/s%n", content.length / 1e6 / (time / 1e9));
+    }
+
+    /* Return the number of tokens of "input" */
+    static int lex(JavaCharStream input){
+
+        MiniJavaParserTokenManager lexer = new MiniJavaParserTokenManager(input);
+        int tokens = 0;
+        while (lexer.getNextToken().kind != MiniJavaParserConstants.EOF)
+            tokens++;
+        return tokens;
+    }
+}
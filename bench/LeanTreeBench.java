@@ -0,0 +1,66 @@
+import syntaxtree.*;
+
+import java.util.*;
+
+/* The syntax tree of the parser against its lean tree (--lean) on a large generated program => the objects and the heap that every tree keeps, and the time to parse and check it */
+class LeanTreeBench {
+
+    public static void main(String[] args) throws Exception {
+
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 500;       /* Number of classes in the generated program */
+
+        final byte[] content = new ProgramGenerator(1, classes, 1, 10, 10, 3, 0).generate().getBytes();
+        int lines = 0;
+        for (byte b : content)
+            if (b == '\n')
+                lines++;
+        System.out.printf("%d classes, %d lines%n", classes, lines);
+
+        for (final boolean lean : new boolean[]{false, true}){
+            String name = lean ? "lean" : "full";
+
+            /* The heap of the tree is what is still used after parsing, with the NameTable made before */
+            NameTable names = new NameTable();
+            long before = used();
+            Goal root = parse(content, names, lean);
+            long heap = used() - before;
+            System.out.printf("%-6s %10d nodes %10d objects %12.1f KB %10.1f bytes/line%n", name, CompileStats.countNodes(root), objects(root), heap / 1024.0, (double) heap / lines);
+            root = null;
+
+            Bench.run("parse " + name, 3, 10, () -> parse(content, new NameTable(), lean));
+
+            Bench.run("parse and check " + name, 3, 10, () -> {
+                NameTable table = new NameTable();
+                MiniJavaParser parser = new MiniJavaParser(DfaTokenManager.of(AsciiCharStream.scan(content), table));
+                parser.lean = lean;
+                return Main.check(parser, table, "<bench>", null);
+            });
+        }
+    }
+
+    static Goal parse(byte[] content, NameTable names, boolean lean) throws ParseException {
+        MiniJavaParser parser = new MiniJavaParser(DfaTokenManager.of(AsciiCharStream.scan(content), names));
+        parser.lean = lean;
+        return parser.Goal();
+    }
+
+    /* The distinct node objects of the tree => a shared token of the lean tree is one object */
+    static int objects(Node root) throws Exception {
+        final Set<Node> distinct = Collections.newSetFromMap(new IdentityHashMap<Node,Boolean>());
+        TraversalBench.TokenCounter counter = new TraversalBench.TokenCounter(){
+            public void visit(NodeToken n){
+                tokens++;
+                distinct.add(n);
+            }
+        };
+        root.accept(counter);
+        return CompileStats.countNodes(root) - counter.tokens + distinct.size();
+    }
+
+    static long used(){
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
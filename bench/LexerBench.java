@@ -0,0 +1,63 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/* The generated MiniJavaParserTokenManager against DfaTokenManager on the same large generated file => every lexer runs in its own JVM, like in InputBench */
+class LexerBench {
+
+    static final String[] LEXERS = {"generated", "dfa", "dfa-chars", "dfa-scan"};
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length > 1){
+            run(Paths.get(args[0]), args[1]);
+            return;
+        }
+
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;        /* Number of classes in the generated file */
+
+        Path file = Files.createTempFile("minijava-lexer", ".java");
+        try{
+            Files.write(file, new ProgramGenerator(1, classes, 1, 10, 10, 3, 0).generate().getBytes());
+            System.out.printf("%d classes, %.1f MB%n", classes, Files.size(file) / 1e6);
+
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            for (String lexer : LEXERS)
+                new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "LexerBench", file.toString(), lexer).inheritIO().start().waitFor();
+        }
+        finally{
+            Files.delete(file);
+        }
+    }
+
+    /* Lex "file" with "lexer" => the stream is made before every round, so only the lexer is timed */
+    static void run(Path file, final String lexer) throws Exception {
+
+        final byte[] content = Files.readAllBytes(file);
+        final int[] tokens = new int[1];
+
+        long time = Bench.run("lex " + lexer, 3, 10, new Bench.Stage<ArrayCharStream>(){
+            public ArrayCharStream setup(){
+                return lexer.equals("dfa-chars") ? (ArrayCharStream) ArrayCharStream.chars(content) : AsciiCharStream.scan(content);
+            }
+            public Object run(ArrayCharStream stream){
+                tokens[0] = 0;
+
+                /* Only the DFA => the kinds of the tokens, without their Token objects, images and positions */
+                if (lexer.equals("dfa-scan")){
+                    DfaTokenManager scanner = new DfaTokenManager(stream, new NameTable());
+                    while (scanner.scan() != MiniJavaParserConstants.EOF)
+                        tokens[0]++;
+                    return tokens[0];
+                }
+
+                MiniJavaParserTokenManager tokenManager = lexer.equals("generated") ? new MiniJavaParserTokenManager(stream) : new DfaTokenManager(stream, new NameTable());
+                while (tokenManager.getNextToken().kind != MiniJavaParserConstants.EOF)
+                    tokens[0]++;
+                return tokens[0];
+            }
+        });
+
+        System.out.printf("    %.1f MB/s, %.1f M tokens/s%n", content.length / 1e6 / (time / 1e9), tokens[0] / 1e6 / (time / 1e9));
+    }
+}
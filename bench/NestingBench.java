@@ -0,0 +1,40 @@
+/* Parses expressions nested to growing depths => the time of every shape should grow with its length, whatever the depth */
+class NestingBench {
+
+    static final String[] SHAPES = {"brackets", "sends", "sums", "not"};
+
+    public static void main(String[] args) throws Exception {
+
+        int[] depths = {2, 4, 8, 16, 64, 256};
+        if (args.length > 0){
+            depths = new int[args.length];
+            for (int i = 0; i < args.length; i++)
+                depths[i] = Integer.parseInt(args[i]);
+        }
+
+        for (String shape : SHAPES)
+            for (int depth : depths){
+                final String source = program(shape, depth);
+                Bench.run(shape + " depth " + depth + " (" + source.length() + " chars)", 5, 10, () -> Bench.parse(source));
+            }
+    }
+
+    /* A program with one assignment of an expression of "shape" nested "depth" times */
+    static String program(String shape, int depth){
+
+        String expression = "1";
+        for (int i = 0; i < depth; i++){
+            if (shape.equals("brackets"))
+                expression = "(" + expression + ")";
+            else if (shape.equals("sends"))
+                expression = "this.f(" + expression + ")";
+            else if (shape.equals("sums"))
+                expression = "(" + expression + " + 1)";
+            else
+                expression = "!(" + expression + ")";
+        }
+
+        return "class Main { public static void main(String[] a){ System.out.println(new A().f(1)); } }\n"
+             + "class A { public int f(int x){ int y; y = " + expression + "; return x; } }\n";
+    }
+}
@@ -0,0 +1,60 @@
+import syntaxtree.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/* Goal() against ParallelParser on large generated files => the tokens are lexed before every round, so only the parsers are timed */
+class ParallelParseBench {
+
+    public static void main(String[] args) throws Exception {
+
+        int[] sizes = {1000, 2000};                /* Number of classes in the generated files */
+        if (args.length > 0){
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++)
+                sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d processors%n", processors);
+
+        for (int classes : sizes){
+            final byte[] content = new ProgramGenerator(1, classes, 1, 10, 10, 3, 0).generate().getBytes();
+            check(content);
+
+            Bench.run("Goal() (" + classes + " classes)", 3, 5, new Bench.Stage<List<Token>>(){
+                public List<Token> setup(){ return lex(content); }
+                public Object run(List<Token> tokens) throws Exception { return new MiniJavaParser(new ReplayTokenManager(tokens)).Goal(); }
+            });
+
+            for (int threads : new int[]{1, 2, 4, processors}){
+                final ForkJoinPool pool = new ForkJoinPool(threads);
+                Bench.run("ParallelParser, " + threads + " threads (" + classes + " classes)", 3, 5, new Bench.Stage<List<Token>>(){
+                    public List<Token> setup(){ return lex(content); }
+                    public Object run(List<Token> tokens) throws Exception { return ParallelParser.parse(tokens, false, null, pool); }
+                });
+                pool.shutdown();
+            }
+        }
+    }
+
+    /* Lex "content" for the next round => the tree of the last round is dropped and collected first, so the parsers aren't timed with its garbage */
+    static List<Token> lex(byte[] content){
+        Bench.sink = null;
+        List<Token> tokens = ReplayTokenManager.lex(AsciiCharStream.scan(content), new NameTable());
+        System.gc();
+        return tokens;
+    }
+
+    /* Both parsers must make the same tree => their FlatTrees are compared row by row */
+    static void check(byte[] content) throws Exception {
+
+        NameTable names = new NameTable();
+        FlatTree sequential = FlatTree.of(new MiniJavaParser(new ReplayTokenManager(ReplayTokenManager.lex(AsciiCharStream.scan(content), names))).Goal(), names);
+        FlatTree parallel = FlatTree.of(ParallelParser.parse(ReplayTokenManager.lex(AsciiCharStream.scan(content), names), false, null, ForkJoinPool.commonPool()), names);
+
+        if (!Arrays.equals(sequential.kind, parallel.kind) || !Arrays.equals(sequential.end, parallel.end) || !Arrays.equals(sequential.tokenStart, parallel.tokenStart)
+                || !Arrays.equals(sequential.tokenKind, parallel.tokenKind) || !Arrays.equals(sequential.image, parallel.image) || !Arrays.equals(sequential.line, parallel.line) || !Arrays.equals(sequential.column, parallel.column))
+            throw new IllegalStateException("ParallelParser made another tree than Goal()");
+    }
+}
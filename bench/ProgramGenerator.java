@@ -0,0 +1,277 @@
+import java.util.*;
+
+import java.io.FileWriter;
+import java.io.Writer;
+
+/* Writes random MiniJava programs for benchmarks and stress tests => the same seed and parameters always give the same program */
+class ProgramGenerator {
+
+    int classes;                        /* Number of classes (without the main class) */
+    int depth;                          /* Length of every inheritance chain => 1 means that no class extends another class */
+    int methods;                        /* Number of methods in every class */
+    int statements;                     /* Number of statements in every method */
+    int exprDepth;                      /* How deep the expressions are nested */
+    int errors;                         /* Number of semantic errors to put in the program => 0 for a valid program */
+
+    Random random;
+    StringBuilder src;
+    List<List<String>> visible;         /* The methods that an object of every class can call */
+    Set<String> errorSlots;             /* The methods ("class.method") that start with an error */
+
+    public ProgramGenerator(long seed, int classes, int depth, int methods, int statements, int exprDepth, int errors){
+        this.classes = Math.max(1, classes);
+        this.depth = Math.max(1, depth);
+        this.methods = Math.max(1, methods);
+        this.statements = statements;
+        this.exprDepth = exprDepth;
+        this.errors = errors;
+        this.random = new Random(seed);
+    }
+
+    /* Usage: java ProgramGenerator [--seed S] [--classes N] [--depth N] [--methods N] [--statements N] [--expr-depth N] [--invalid N] [outputFile] */
+    public static void main(String[] args) throws Exception {
+
+        long seed = 1;
+        int[] params = {100, 5, 10, 10, 3, 0};          /* classes, depth, methods, statements, expr-depth, invalid */
+        List<String> names = Arrays.asList("--classes", "--depth", "--methods", "--statements", "--expr-depth", "--invalid");
+        String outputFile = null;
+
+        for (int i = 0; i < args.length; i++){
+            if (args[i].equals("--seed"))
+                seed = Long.parseLong(args[++i]);
+            else if (names.contains(args[i])){
+                int index = names.indexOf(args[i]);
+                params[index] = Integer.parseInt(args[++i]);
+            }
+            else
+                outputFile = args[i];
+        }
+
+        String program = new ProgramGenerator(seed, params[0], params[1], params[2], params[3], params[4], params[5]).generate();
+
+        if (outputFile == null)
+            System.out.print(program);
+        else{
+            try (Writer out = new FileWriter(outputFile)){
+                out.write(program);
+            }
+        }
+    }
+
+    /* Return the name of the class with index "c" */
+    String className(int c){
+        return "C" + c;
+    }
+
+    /* Return the index of the class that the class "c" extends => -1 if it doesn't extend another class */
+    int parent(int c){
+        return (c % depth == 0) ? -1 : c - 1;
+    }
+
+    /* Create the program */
+    public String generate(){
+
+        src = new StringBuilder();
+        visible = new ArrayList<List<String>>();
+        errorSlots = new HashSet<String>();
+
+        /* Choose the methods of every class => a class that extends another class overrides some of the parent's methods */
+        List<List<String>> declared = new ArrayList<List<String>>();
+        for (int c = 0; c < classes; c++){
+
+            List<String> own = new ArrayList<String>();
+            List<String> all = new ArrayList<String>(parent(c) == -1 ? Collections.<String>emptyList() : visible.get(parent(c)));
+
+            for (int m = 0; m < methods; m++){
+                if (!all.isEmpty() && random.nextInt(4) == 0){
+                    String overridden = all.get(random.nextInt(all.size()));
+                    if (!own.contains(overridden)){
+                        own.add(overridden);
+                        continue;
+                    }
+                }
+                String method = "m" + c + "_" + m;
+                own.add(method);
+                all.add(method);
+            }
+            declared.add(own);
+            visible.add(all);
+        }
+
+        while (errorSlots.size() < Math.min(errors, classes * methods)){
+            int c = random.nextInt(classes);
+            errorSlots.add(c + "." + declared.get(c).get(random.nextInt(declared.get(c).size())));
+        }
+
+        src.append("class Main {\n");
+        src.append("    public static void main(String[] a){\n");
+        src.append("        System.out.println(new " + className(classes - 1) + "()." + visible.get(classes - 1).get(0) + "(1, true));\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        for (int c = 0; c < classes; c++){
+
+            src.append("\nclass " + className(c) + (parent(c) == -1 ? "" : " extends " + className(parent(c))) + " {\n");
+            src.append("    int f" + c + ";\n");
+            src.append("    boolean g" + c + ";\n");
+            src.append("    int[] h" + c + ";\n");
+
+            for (String method : declared.get(c))
+                method(c, method);
+
+            src.append("}\n");
+        }
+        return src.toString();
+    }
+
+    /* Create the method called "method" of the class "c" */
+    void method(int c, String method){
+
+        src.append("\n    public int " + method + "(int p, boolean q){\n");
+        src.append("        int x;\n");
+        src.append("        boolean b;\n");
+        src.append("        int[] arr;\n");
+
+        if (errorSlots.contains(c + "." + method))
+            src.append("        " + error(c) + "\n");
+
+        src.append("        x = p;\n");
+        src.append("        b = q;\n");
+        src.append("        arr = new int[10];\n");
+
+        for (int s = 0; s < statements; s++)
+            statement(c, 2, exprDepth);
+
+        src.append("        return " + intExpr(c, exprDepth) + ";\n");
+        src.append("    }\n");
+    }
+
+    /* Return a statement with a semantic error inside a method of the class "c" */
+    String error(int c){
+
+        switch (random.nextInt(6)){
+            case 0:  return "x = undefinedVariable;";
+            case 1:  return "b = 1;";
+            case 2:  return "x = this.undefinedMethod(1, true);";
+            case 3:  return "x = this." + visible.get(c).get(0) + "(1);";
+            case 4:  return "x = new UndefinedClass();";
+            default: return "System.out.println(true);";
+        }
+    }
+
+    /* Create a statement inside a method of the class "c" */
+    void statement(int c, int indent, int d){
+
+        String tab = "    ".repeat(indent);
+
+        switch (random.nextInt(d > 0 ? 8 : 5)){
+            case 0:  src.append(tab + "x = " + intExpr(c, d) + ";\n"); break;
+            case 1:  src.append(tab + "b = " + boolExpr(c, d) + ";\n"); break;
+            case 2:  src.append(tab + arrayVariable(c) + "[" + intExpr(c, d) + "] = " + intExpr(c, d) + ";\n"); break;
+            case 3:  src.append(tab + "System.out.println(" + intExpr(c, d) + ");\n"); break;
+            case 4:  src.append(tab + "x = " + call(c, d) + ";\n"); break;
+            case 5:
+                src.append(tab + "if (" + boolExpr(c, d) + ")\n");
+                statement(c, indent + 1, d - 1);
+                src.append(tab + "else\n");
+                statement(c, indent + 1, d - 1);
+                break;
+            case 6:
+                src.append(tab + "while (" + boolExpr(c, d) + ")\n");
+                statement(c, indent + 1, d - 1);
+                break;
+            default:
+                src.append(tab + "{\n");
+                statement(c, indent + 1, d - 1);
+                statement(c, indent + 1, d - 1);
+                src.append(tab + "}\n");
+        }
+    }
+
+    /* Return a variable or a field of type int that a method of the class "c" can use */
+    String intVariable(int c){
+
+        switch (random.nextInt(3)){
+            case 0:  return "x";
+            case 1:  return "p";
+            default: return "f" + ancestor(c);
+        }
+    }
+
+    /* Return a variable or a field of type boolean that a method of the class "c" can use */
+    String boolVariable(int c){
+
+        switch (random.nextInt(3)){
+            case 0:  return "b";
+            case 1:  return "q";
+            default: return "g" + ancestor(c);
+        }
+    }
+
+    /* Return a variable or a field of type int[] that a method of the class "c" can use */
+    String arrayVariable(int c){
+        return random.nextBoolean() ? "arr" : "h" + ancestor(c);
+    }
+
+    /* Return the class "c" or one of the classes that it extends */
+    int ancestor(int c){
+
+        int steps = random.nextInt(c % depth + 1);
+        return c - steps;
+    }
+
+    /* PrimaryExpression of type int */
+    String intPrimary(int c, int d){
+
+        if (d > 0 && random.nextInt(3) == 0)
+            return "(" + intExpr(c, d - 1) + ")";
+
+        return random.nextBoolean() ? Integer.toString(random.nextInt(100)) : intVariable(c);
+    }
+
+    /* Expression of type int */
+    String intExpr(int c, int d){
+
+        switch (random.nextInt(d > 0 ? 7 : 2)){
+            case 0:  return intPrimary(c, d);
+            case 1:  return intPrimary(c, d) + " + " + intPrimary(c, d);
+            case 2:  return intPrimary(c, d) + " - " + intPrimary(c, d);
+            case 3:  return intPrimary(c, d) + " * " + intPrimary(c, d);
+            case 4:  return arrayVariable(c) + "[" + intPrimary(c, d) + "]";
+            case 5:  return arrayVariable(c) + ".length";
+            default: return call(c, d - 1);
+        }
+    }
+
+    /* PrimaryExpression of type boolean */
+    String boolPrimary(int c, int d){
+
+        switch (random.nextInt(d > 0 ? 5 : 3)){
+            case 0:  return random.nextBoolean() ? "true" : "false";
+            case 1:
+            case 2:  return boolVariable(c);
+            case 3:  return "!" + boolPrimary(c, d - 1);
+            default: return "(" + boolExpr(c, d - 1) + ")";
+        }
+    }
+
+    /* Expression of type boolean */
+    String boolExpr(int c, int d){
+
+        switch (random.nextInt(3)){
+            case 0:  return boolPrimary(c, d) + " && " + boolPrimary(c, d);
+            case 1:  return intPrimary(c, d) + " < " + intPrimary(c, d);
+            default: return boolPrimary(c, d);
+        }
+    }
+
+    /* MessageSend of a method that returns int => on "this" or on a new object of any class */
+    String call(int c, int d){
+
+        int target = random.nextBoolean() ? c : random.nextInt(classes);
+        String object = (target == c) ? "this" : "new " + className(target) + "()";
+        List<String> methods = visible.get(target);
+
+        return object + "." + methods.get(random.nextInt(methods.size())) + "(" + intExpr(c, Math.max(0, d - 1)) + ", " + boolExpr(c, Math.max(0, d - 1)) + ")";
+    }
+}
@@ -0,0 +1,42 @@
+import syntaxtree.*;
+
+/* Grows one parameter of ProgramGenerator at a time and times the whole compiler => a stage that grows faster than the program is super-linear */
+class ScalingBench {
+
+    static final String[] PARAMS = {"classes", "depth", "methods", "statements", "expr-depth"};
+
+    public static void main(String[] args) throws Exception {
+
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 4;             /* How many times every parameter grows */
+        int[] base = {40, 4, 8, 8, 2};                                          /* classes, depth, methods, statements, expr-depth */
+
+        for (int p = 0; p < PARAMS.length; p++){
+
+            long prevTime = 0;
+            int prevSize = 0;
+            int[] params = base.clone();
+
+            for (int step = 0; step <= steps; step++){
+
+                final String source = new ProgramGenerator(1, params[0], params[1], params[2], params[3], params[4], 0).generate();
+
+                long time = Bench.run(String.format("%-10s = %-6d (%8d chars)", PARAMS[p], params[p], source.length()), 2, 5, () -> {
+                    Goal root = Bench.parse(source);
+                    return Bench.check(root);
+                });
+
+                /* The time should grow as fast as the program => warn when it grows more than twice as fast */
+                if (prevTime > 0){
+                    double growth = ((double) time / prevTime) / ((double) source.length() / prevSize);
+                    if (growth > 2)
+                        System.out.printf("    super-linear: time grew %.1fx faster than the program%n", growth);
+                }
+                prevTime = time;
+                prevSize = source.length();
+
+                /* The depth of the expressions grows the program exponentially, so it grows by one => the others double */
+                params[p] = (p == 4) ? params[p] + 1 : params[p] * 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import syntaxtree.*;
+
+import java.util.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+/* One benchmark for every stage of the compiler => the lexer, the parser, the two passes of MyVisitor and the offsets output */
+class StageBench {
+
+    public static void main(String[] args) throws Exception {
+
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : 2000;        /* Number of methods or classes in the synthetic programs */
+        int classes = Math.max(1, scale / 10);
+
+        stages("tests/", Bench.corpus("tests"));
+        stages("hierarchy " + scale + " methods", Collections.singletonList(SymbolTableBench.hierarchy(scale, 10)));
+        stages("classes " + scale, Collections.singletonList(ClassIndexBench.classes(scale)));
+        stages("generated " + classes + " classes", Collections.singletonList(new ProgramGenerator(1, classes, 1, 10, 10, 3, 0).generate()));
+        stages("generated " + classes + " classes, depth 10", Collections.singletonList(new ProgramGenerator(1, classes, 10, 10, 10, 3, 0).generate()));
+    }
+
+    /* Run every stage on the programs "sources" */
+    static void stages(String input, final List<String> sources) throws Exception {
+
+        final List<Goal> roots = new ArrayList<Goal>();
+        for (String source : sources)
+            roots.add(Bench.parse(source));
+
+        final PrintStream nowhere = new PrintStream(OutputStream.nullOutputStream());
+
+        Bench.run("lex        [" + input + "]", 5, 10, () -> {
+            int tokens = 0;
+            for (String source : sources){
+                MiniJavaParserTokenManager lexer = new MiniJavaParserTokenManager(new JavaCharStream(new StringReader(source)));
+                while (lexer.getNextToken().kind != MiniJavaParserConstants.EOF)
+                    tokens++;
+            }
+            return tokens;
+        });
+
+        Bench.run("parse      [" + input + "]", 5, 10, () -> {
+            List<Goal> parsed = new ArrayList<Goal>();
+            for (String source : sources)
+                parsed.add(Bench.parse(source));
+            return parsed;
+        });
+
+        Bench.run("collect    [" + input + "]", 5, 10, () -> {
+            List<MyVisitor> collected = new ArrayList<MyVisitor>();
+            for (Goal root : roots)
+                collected.add(Bench.collect(root));
+            return collected;
+        });
+
+        Bench.run("typecheck  [" + input + "]", 5, 10, new Bench.Stage<List<MyVisitor>>(){
+            public List<MyVisitor> setup() throws Exception {
+                List<MyVisitor> collected = new ArrayList<MyVisitor>();
+                for (Goal root : roots)
+                    collected.add(Bench.collect(root));
+                return collected;
+            }
+            public Object run(List<MyVisitor> collected) throws Exception {
+                for (int i = 0; i < roots.size(); i++)
+                    Bench.typeCheck(roots.get(i), collected.get(i));
+                return collected;
+            }
+        });
+
+        final List<MyVisitor> checked = new ArrayList<MyVisitor>();
+        for (Goal root : roots)
+            checked.add(Bench.typeCheck(root, Bench.collect(root)));
+
+        Bench.run("offsets    [" + input + "]", 5, 10, () -> {
+            for (MyVisitor typeCheck : checked)
+                typeCheck.output(nowhere);
+            return checked;
+        });
+    }
+}
@@ -0,0 +1,40 @@
+import syntaxtree.*;
+
+/* Type checks a class hierarchy with thousands of methods => every method calls a method of the first class, so each call walks the whole inheritance chain */
+class SymbolTableBench {
+
+    public static void main(String[] args) throws Exception {
+
+        int methods = args.length > 0 ? Integer.parseInt(args[0]) : 10000;      /* Number of methods in the program */
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 10;           /* Number of classes in the inheritance chain */
+
+        final Goal root = Bench.parse(hierarchy(methods, depth));
+
+        Bench.run("collect + typecheck (" + methods + " methods, depth " + depth + ")", 2, 5, () -> Bench.check(root));
+    }
+
+    /* Create a program with a chain of "depth" classes and "methods" methods in total */
+    static String hierarchy(int methods, int depth){
+
+        StringBuilder src = new StringBuilder();
+        int perClass = Math.max(1, methods / depth);
+
+        src.append("class Main {\n    public static void main(String[] a){\n        System.out.println(new C" + (depth - 1) + "().m0(1));\n    }\n}\n");
+
+        for (int c = 0; c < depth; c++){
+
+            src.append("class C" + c + (c == 0 ? "" : " extends C" + (c - 1)) + " {\n    int f" + c + ";\n");
+
+            for (int m = c * perClass; m < (c + 1) * perClass; m++){
+                src.append("    public int m" + m + "(int p){\n");
+                src.append("        int x;\n");
+                src.append("        x = p + 1;\n");
+                src.append("        x = this.m" + (m % perClass) + "(x);\n");
+                src.append("        f" + c + " = x;\n");
+                src.append("        return x;\n    }\n");
+            }
+            src.append("}\n");
+        }
+        return src.toString();
+    }
+}
@@ -0,0 +1,40 @@
+import syntaxtree.*;
+import visitor.*;
+
+/* Walks the whole syntax tree of a large generated program with the generated depth first visitors => the cost of the NodeList, NodeListOptional and NodeSequence loops */
+class TraversalBench {
+
+    public static void main(String[] args) throws Exception {
+
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 500;       /* Number of classes in the generated program */
+
+        final Goal root = Bench.parse(new ProgramGenerator(1, classes, 1, 10, 10, 3, 0).generate());
+
+        Bench.run("DepthFirstVisitor (" + classes + " classes)", 5, 10, () -> {
+            TokenCounter counter = new TokenCounter();
+            root.accept(counter);
+            return counter.tokens;
+        });
+
+        Bench.run("GJDepthFirst (" + classes + " classes)", 5, 10, () -> {
+            GJDepthFirst<Object,Object> visitor = new GJDepthFirst<Object,Object>();
+            return root.accept(visitor, null);
+        });
+
+        Bench.run("GJVoidDepthFirst (" + classes + " classes)", 5, 10, () -> {
+            GJVoidDepthFirst<Object> visitor = new GJVoidDepthFirst<Object>();
+            root.accept(visitor, null);
+            return visitor;
+        });
+    }
+
+    /* Counts the tokens of the tree => every node is visited and the walk has a result */
+    static class TokenCounter extends DepthFirstVisitor {
+
+        int tokens = 0;
+
+        public void visit(NodeToken n){
+            tokens++;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+class SyntaxErrors {
+
+    public static void main(String[] args){
+        System.out.println(new A().f(1));
+    }
+
+}
+
+class A {
+    int x;
+    int[ y;                         // missing "]"
+
+    public int f(int p){
+        x = p q;                    // two operands
+        p = 2;
+        if (p < 1 { x = 1; } else { x = 2; }     // no ")"
+        x = 3 +;                    // no right operand
+        return x;
+    }
+
+    public int g( { return 1; }     // no ")"
+
+    public int h(){
+        return z;                   // not a syntax error
+    }
+}
+
+class B extends { }                 // no superclass
+
+class C {
+    public int k(){
+        int w;
+        w = true;                   // not a syntax error
+        return w;
+    }
+}
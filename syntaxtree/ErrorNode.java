@@ -0,0 +1,34 @@
+//
+// Written like the JTB nodes => MiniJavaParser makes it when it recovers from a syntax error
+//
+
+package syntaxtree;
+
+/**
+ * The tokens of a statement, a declaration or a class that didn't parse,
+ * which the parser skipped up to where it could go on.
+ * f0 -> the tokens, in the order of the file
+ */
+public class ErrorNode implements Node {
+   private static final long serialVersionUID = 1L;
+
+   public NodeListOptional f0;
+
+   public ErrorNode(NodeListOptional n0) {
+      f0 = n0;
+   }
+
+   public void accept(visitor.Visitor v) throws Exception {
+      v.visit(this);
+   }
+   public <R,A> R accept(visitor.GJVisitor<R,A> v, A argu) throws Exception {
+      return v.visit(this,argu);
+   }
+   public <R> R accept(visitor.GJNoArguVisitor<R> v) throws Exception {
+      return v.visit(this);
+   }
+   public <A> void accept(visitor.GJVoidVisitor<A> v, A argu) throws Exception {
+      v.visit(this,argu);
+   }
+}
+
@@ -11,20 +11,20 @@ import java.util.*;
  */
 public class NodeList implements NodeListInterface {
    public NodeList() {
-      nodes = new Vector<Node>();
+      nodes = new ArrayList<Node>();
    }
 
    public NodeList(Node firstNode) {
-      nodes = new Vector<Node>();
+      nodes = new ArrayList<Node>();
       addNode(firstNode);
    }
 
    public void addNode(Node n) {
-      nodes.addElement(n);
+      nodes.add(n);
    }
 
-   public Enumeration<Node> elements() { return nodes.elements(); }
-   public Node elementAt(int i)  { return nodes.elementAt(i); }
+   public Enumeration<Node> elements() { return Collections.enumeration(nodes); }
+   public Node elementAt(int i)  { return nodes.get(i); }
    public int size()             { return nodes.size(); }
    public void accept(visitor.Visitor v) throws Exception {
       v.visit(this);
@@ -39,6 +39,6 @@ public class NodeList implements NodeListInterface {
       v.visit(this,argu);
    }
 
-   public Vector<Node> nodes;
+   public ArrayList<Node> nodes;
 }
 
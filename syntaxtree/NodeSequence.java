@@ -12,20 +12,20 @@ import java.util.*;
  */
 public class NodeSequence implements NodeListInterface {
    public NodeSequence(int n) {
-      nodes = new Vector<Node>(n);
+      nodes = new ArrayList<Node>(n);
    }
 
    public NodeSequence(Node firstNode) {
-      nodes = new Vector<Node>();
+      nodes = new ArrayList<Node>();
       addNode(firstNode);
    }
 
    public void addNode(Node n) {
-      nodes.addElement(n);
+      nodes.add(n);
    }
 
-   public Node elementAt(int i)  { return nodes.elementAt(i); }
-   public Enumeration<Node> elements() { return nodes.elements(); }
+   public Node elementAt(int i)  { return nodes.get(i); }
+   public Enumeration<Node> elements() { return Collections.enumeration(nodes); }
    public int size()             { return nodes.size(); }
    public void accept(visitor.Visitor v) throws Exception {
       v.visit(this);
@@ -40,6 +40,6 @@ public class NodeSequence implements NodeListInterface {
       v.visit(this,argu);
    }
 
-   public Vector<Node> nodes;
+   public ArrayList<Node> nodes;
 }
 
@@ -7,7 +7,7 @@ package syntaxtree;
 import java.util.*;
 /**
  * Represents a single token in the grammar.  If the "-tk" option
- * is used, also contains a Vector of preceding special tokens.
+ * is used, also contains a list of preceding special tokens.
  */
 public class NodeToken implements Node {
    public NodeToken(String s) {
@@ -26,7 +26,7 @@ public class NodeToken implements Node {
    public NodeToken getSpecialAt(int i) {
       if ( specialTokens == null )
          throw new java.util.NoSuchElementException("No specials in token");
-      return specialTokens.elementAt(i);
+      return specialTokens.get(i);
    }
 
    public int numSpecials() {
@@ -35,8 +35,8 @@ public class NodeToken implements Node {
    }
 
    public void addSpecial(NodeToken s) {
-      if ( specialTokens == null ) specialTokens = new Vector<NodeToken>();
-      specialTokens.addElement(s);
+      if ( specialTokens == null ) specialTokens = new ArrayList<NodeToken>();
+      specialTokens.add(s);
    }
 
    public void trimSpecials() {
@@ -44,18 +44,21 @@ public class NodeToken implements Node {
       specialTokens.trimToSize();
    }
 
-   public String toString()     { return tokenImage; }
+   // The image of the token, which a subclass may only make when it's first asked for
+   public String image()        { return tokenImage; }
+
+   public String toString()     { return image(); }
 
    public String withSpecials() {
       if ( specialTokens == null )
-          return tokenImage;
+          return image();
 
        StringBuffer buf = new StringBuffer();
 
-       for ( Enumeration<NodeToken> e = specialTokens.elements(); e.hasMoreElements(); )
-          buf.append(e.nextElement().toString());
+       for ( int i = 0; i < specialTokens.size(); i++ )
+          buf.append(specialTokens.get(i).toString());
 
-       buf.append(tokenImage);
+       buf.append(image());
        return buf.toString();
    }
 
@@ -72,10 +75,11 @@ public class NodeToken implements Node {
       v.visit(this,argu);
    }
 
+   // Null in a token whose image() is only made when it's asked for
    public String tokenImage;
 
    // Stores a list of NodeTokens
-   public Vector<NodeToken> specialTokens;
+   public ArrayList<NodeToken> specialTokens;
 
    // -1 for these ints means no position info is available.
    public int beginLine, beginColumn, endLine, endColumn;
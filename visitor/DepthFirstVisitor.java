@@ -15,14 +15,14 @@ public class DepthFirstVisitor implements Visitor {
    // Auto class visitors--probably don't need to be overridden.
    //
    public void visit(NodeList n) throws Exception {
-      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); )
-         e.nextElement().accept(this);
+      for ( int i = 0; i < n.size(); i++ )
+         n.elementAt(i).accept(this);
    }
 
    public void visit(NodeListOptional n) throws Exception {
       if ( n.present() )
-         for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); )
-            e.nextElement().accept(this);
+         for ( int i = 0; i < n.size(); i++ )
+            n.elementAt(i).accept(this);
    }
 
    public void visit(NodeOptional n) throws Exception {
@@ -31,12 +31,16 @@ public class DepthFirstVisitor implements Visitor {
    }
 
    public void visit(NodeSequence n) throws Exception {
-      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); )
-         e.nextElement().accept(this);
+      for ( int i = 0; i < n.size(); i++ )
+         n.elementAt(i).accept(this);
    }
 
    public void visit(NodeToken n) throws Exception {}
 
+   public void visit(ErrorNode n) throws Exception {
+      n.f0.accept(this);
+   }
+
    //
    // User-generated visitor methods below
    //
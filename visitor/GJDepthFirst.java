@@ -19,8 +19,8 @@ public class GJDepthFirst<R,A> implements GJVisitor<R,A> {
          return n.elementAt(0).accept(this,argu);
       R _ret=null;
       int _count=0;
-      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-         e.nextElement().accept(this,argu);
+      for ( int i = 0; i < n.size(); i++ ) {
+         n.elementAt(i).accept(this,argu);
          _count++;
       }
       return _ret;
@@ -32,8 +32,8 @@ public class GJDepthFirst<R,A> implements GJVisitor<R,A> {
             return n.elementAt(0).accept(this,argu);
          R _ret=null;
          int _count=0;
-         for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-            e.nextElement().accept(this,argu);
+         for ( int i = 0; i < n.size(); i++ ) {
+            n.elementAt(i).accept(this,argu);
             _count++;
          }
          return _ret;
@@ -54,8 +54,8 @@ public class GJDepthFirst<R,A> implements GJVisitor<R,A> {
          return n.elementAt(0).accept(this,argu);
       R _ret=null;
       int _count=0;
-      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-         e.nextElement().accept(this,argu);
+      for ( int i = 0; i < n.size(); i++ ) {
+         n.elementAt(i).accept(this,argu);
          _count++;
       }
       return _ret;
@@ -63,6 +63,11 @@ public class GJDepthFirst<R,A> implements GJVisitor<R,A> {
 
    public R visit(NodeToken n, A argu) throws Exception { return null; }
 
+   public R visit(ErrorNode n, A argu) throws Exception {
+      n.f0.accept(this, argu);
+      return null;
+   }
+
    //
    // User-generated visitor methods below
    //
@@ -19,8 +19,8 @@ public class GJNoArguDepthFirst<R> implements GJNoArguVisitor<R> {
          return n.elementAt(0).accept(this);
       R _ret=null;
       int _count=0;
-      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-         e.nextElement().accept(this);
+      for ( int i = 0; i < n.size(); i++ ) {
+         n.elementAt(i).accept(this);
          _count++;
       }
       return _ret;
@@ -32,8 +32,8 @@ public class GJNoArguDepthFirst<R> implements GJNoArguVisitor<R> {
             return n.elementAt(0).accept(this);
          R _ret=null;
          int _count=0;
-         for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-            e.nextElement().accept(this);
+         for ( int i = 0; i < n.size(); i++ ) {
+            n.elementAt(i).accept(this);
             _count++;
          }
          return _ret;
@@ -54,8 +54,8 @@ public class GJNoArguDepthFirst<R> implements GJNoArguVisitor<R> {
          return n.elementAt(0).accept(this);
       R _ret=null;
       int _count=0;
-      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-         e.nextElement().accept(this);
+      for ( int i = 0; i < n.size(); i++ ) {
+         n.elementAt(i).accept(this);
          _count++;
       }
       return _ret;
@@ -63,6 +63,11 @@ public class GJNoArguDepthFirst<R> implements GJNoArguVisitor<R> {
 
    public R visit(NodeToken n) throws Exception { return null; }
 
+   public R visit(ErrorNode n) throws Exception {
+      n.f0.accept(this);
+      return null;
+   }
+
    //
    // User-generated visitor methods below
    //
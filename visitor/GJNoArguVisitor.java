@@ -21,6 +21,7 @@ public interface GJNoArguVisitor<R> {
    public R visit(NodeOptional n)  throws Exception;
    public R visit(NodeSequence n)  throws Exception;
    public R visit(NodeToken n)  throws Exception;
+   public R visit(ErrorNode n)  throws Exception;
 
    //
    // User-generated visitor methods below
@@ -21,6 +21,7 @@ public interface GJVisitor<R,A> {
    public R visit(NodeOptional n, A argu) throws Exception;
    public R visit(NodeSequence n, A argu) throws Exception;
    public R visit(NodeToken n, A argu) throws Exception;
+   public R visit(ErrorNode n, A argu) throws Exception;
 
    //
    // User-generated visitor methods below
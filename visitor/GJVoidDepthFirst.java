@@ -16,8 +16,8 @@ public class GJVoidDepthFirst<A> implements GJVoidVisitor<A> {
    //
    public void visit(NodeList n, A argu) throws Exception {
       int _count=0;
-      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-         e.nextElement().accept(this,argu);
+      for ( int i = 0; i < n.size(); i++ ) {
+         n.elementAt(i).accept(this,argu);
          _count++;
       }
    }
@@ -25,8 +25,8 @@ public class GJVoidDepthFirst<A> implements GJVoidVisitor<A> {
    public void visit(NodeListOptional n, A argu) throws Exception {
       if ( n.present() ) {
          int _count=0;
-         for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-            e.nextElement().accept(this,argu);
+         for ( int i = 0; i < n.size(); i++ ) {
+            n.elementAt(i).accept(this,argu);
             _count++;
          }
       }
@@ -39,14 +39,18 @@ public class GJVoidDepthFirst<A> implements GJVoidVisitor<A> {
 
    public void visit(NodeSequence n, A argu) throws Exception {
       int _count=0;
-      for ( Enumeration<Node> e = n.elements(); e.hasMoreElements(); ) {
-         e.nextElement().accept(this,argu);
+      for ( int i = 0; i < n.size(); i++ ) {
+         n.elementAt(i).accept(this,argu);
          _count++;
       }
    }
 
    public void visit(NodeToken n, A argu) throws Exception {}
 
+   public void visit(ErrorNode n, A argu) throws Exception {
+      n.f0.accept(this, argu);
+   }
+
    //
    // User-generated visitor methods below
    //
@@ -21,6 +21,7 @@ public interface GJVoidVisitor<A> {
    public void visit(NodeOptional n, A argu) throws Exception;
    public void visit(NodeSequence n, A argu) throws Exception;
    public void visit(NodeToken n, A argu) throws Exception;
+   public void visit(ErrorNode n, A argu) throws Exception;
 
    //
    // User-generated visitor methods below
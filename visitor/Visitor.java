@@ -21,6 +21,7 @@ public interface Visitor {
    public void visit(NodeOptional n) throws Exception;
    public void visit(NodeSequence n) throws Exception;
    public void visit(NodeToken n) throws Exception;
+   public void visit(ErrorNode n) throws Exception;
 
    //
    // User-generated visitor methods below